@@ -38,14 +38,20 @@ public class CorsConfig {
             "Accept",
             "Origin",
             "Access-Control-Request-Method",
-            "Access-Control-Request-Headers"
+            "Access-Control-Request-Headers",
+            "If-None-Match",
+            "If-Match",
+            "Last-Event-ID"
         ));
 
         // Expose headers that client can access
         configuration.setExposedHeaders(Arrays.asList(
             "Access-Control-Allow-Origin",
             "Access-Control-Allow-Credentials",
-            "Authorization"
+            "Authorization",
+            "ETag",
+            "X-DB-Statements",
+            "Server-Timing"
         ));
 
         // Allow credentials (cookies, authorization headers)
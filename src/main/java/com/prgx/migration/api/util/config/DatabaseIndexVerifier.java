@@ -0,0 +1,99 @@
+package com.prgx.migration.api.util.config;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Warns at startup when an index the repositories rely on is missing, e.g. because a
+ * migration was skipped or the schema was created by hand.
+ */
+@Component
+@RequiredArgsConstructor
+public class DatabaseIndexVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseIndexVerifier.class);
+
+    /**
+     * Expected access paths: table -> leading index columns, in order
+     */
+    private static final Map<String, List<List<String>>> EXPECTED_INDEXES = Map.of(
+            "guests", List.of(
+                    List.of("user_id", "id"),
+                    List.of("user_id", "created_at"),
+                    List.of("user_id", "updated_at")),
+            "guest_tombstones", List.of(
+                    List.of("user_id", "deleted_at"),
+                    List.of("deleted_at")),
+            "users", List.of(
+                    List.of("provider", "provider_id"))
+    );
+
+    private final DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIndexes() {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            EXPECTED_INDEXES.forEach((table, expectedIndexes) -> {
+                List<List<String>> actualIndexes = readIndexes(metaData, table);
+                for (List<String> expected : expectedIndexes) {
+                    if (actualIndexes.stream().noneMatch(actual -> startsWith(actual, expected))) {
+                        logger.warn("Missing index on {}({}); queries using it will fall back to scans",
+                                table, String.join(", ", expected));
+                    }
+                }
+            });
+        } catch (SQLException | RuntimeException ex) {
+            logger.warn("Could not verify database indexes: {}", ex.getMessage());
+        }
+    }
+
+    private static List<List<String>> readIndexes(DatabaseMetaData metaData, String table) {
+        Map<String, Map<Short, String>> columnsByIndex = new TreeMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(null, null, toStoredCase(metaData, table), false, false)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (indexName != null && column != null) {
+                    columnsByIndex.computeIfAbsent(indexName, name -> new TreeMap<>())
+                            .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        List<List<String>> indexes = new ArrayList<>();
+        columnsByIndex.values().forEach(columns -> indexes.add(new ArrayList<>(columns.values())));
+        return indexes;
+    }
+
+    private static String toStoredCase(DatabaseMetaData metaData, String identifier) throws SQLException {
+        if (metaData.storesUpperCaseIdentifiers()) {
+            return identifier.toUpperCase(Locale.ROOT);
+        }
+        if (metaData.storesLowerCaseIdentifiers()) {
+            return identifier.toLowerCase(Locale.ROOT);
+        }
+        return identifier;
+    }
+
+    private static boolean startsWith(List<String> actual, List<String> expected) {
+        return actual.size() >= expected.size() && actual.subList(0, expected.size()).equals(expected);
+    }
+}
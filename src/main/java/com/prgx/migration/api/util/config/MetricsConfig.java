@@ -0,0 +1,55 @@
+package com.prgx.migration.api.util.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Application metrics beyond the Spring Boot defaults. Service timers come from @Timed
+ * ({@code management.observations.annotations.enabled}); this adds per-request SQL statement
+ * counts and database time, measured by a datasource-proxy wrapper around the connection pool.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Static so that it is registered before the DataSource it wraps is created
+     */
+    @Bean
+    public static BeanPostProcessor requestDbStatsDataSourceProxy() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new RequestDbStatsListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestDbStatsFilter> requestDbStatsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.db.request-stats.warn-statements:100}") int warnStatements,
+            @Value("${app.db.request-stats.warn-time:500ms}") Duration warnTime,
+            @Value("${app.db.request-stats.warn-repeated:20}") int warnRepeated) {
+        FilterRegistrationBean<RequestDbStatsFilter> registration = new FilterRegistrationBean<>(
+                new RequestDbStatsFilter(meterRegistry, warnStatements, warnTime, warnRepeated));
+        registration.addUrlPatterns("/api/*");
+        // Just inside the concurrency limit, so authentication queries are counted too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
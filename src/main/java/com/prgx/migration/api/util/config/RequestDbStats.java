@@ -0,0 +1,71 @@
+package com.prgx.migration.api.util.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statements executed and time spent in JDBC by the current request, collected on the request
+ * thread between {@link #start()} and {@link #stop()}. A JDBC batch counts as one statement.
+ */
+public final class RequestDbStats {
+
+    private static final ThreadLocal<RequestDbStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long nanos;
+    private Map<String, Integer> executionsBySql;
+
+    private RequestDbStats() {
+    }
+
+    public static void start() {
+        CURRENT.set(new RequestDbStats());
+    }
+
+    /**
+     * @return the statistics of the request running on this thread, or null outside a request
+     */
+    public static RequestDbStats current() {
+        return CURRENT.get();
+    }
+
+    public static RequestDbStats stop() {
+        RequestDbStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    /**
+     * @param batch JDBC batches are excluded from the repetition counts: executing the same batched
+     *              insert many times is how large writes are meant to work
+     */
+    void record(String sql, long elapsedNanos, boolean batch) {
+        statements++;
+        nanos += elapsedNanos;
+        if (batch) {
+            return;
+        }
+        if (executionsBySql == null) {
+            executionsBySql = new HashMap<>();
+        }
+        executionsBySql.merge(sql, 1, Integer::sum);
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * The non-batch statement text executed most often, as a hint for N+1 query patterns
+     */
+    public Map.Entry<String, Integer> mostRepeated() {
+        if (executionsBySql == null) {
+            return null;
+        }
+        return executionsBySql.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+    }
+}
@@ -0,0 +1,90 @@
+package com.prgx.migration.api.util.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects {@link RequestDbStats} for each API request and records them as
+ * {@code http.server.requests.db.statements} and {@code http.server.requests.db.time}, tagged like
+ * {@code http.server.requests}. Requests over the configured statement count or database time, or
+ * running one statement repeatedly (a likely N+1 pattern), are logged as warnings.
+ * Only statements on the request thread are counted, so streamed bodies written by an async
+ * executor are not included.
+ */
+public class RequestDbStatsFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestDbStatsFilter.class);
+
+    public static final String STATEMENTS_METRIC = "http.server.requests.db.statements";
+    public static final String TIME_METRIC = "http.server.requests.db.time";
+
+    private final MeterRegistry meterRegistry;
+    private final int warnStatements;
+    private final long warnNanos;
+    private final int warnRepeated;
+
+    public RequestDbStatsFilter(MeterRegistry meterRegistry, int warnStatements, Duration warnTime, int warnRepeated) {
+        this.meterRegistry = meterRegistry;
+        this.warnStatements = warnStatements;
+        this.warnNanos = warnTime.toNanos();
+        this.warnRepeated = warnRepeated;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestDbStats.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDbStats stats = RequestDbStats.stop();
+            // Unmatched requests share one uri tag so that probing random paths cannot add meters
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            Tags tags = Tags.of(
+                    "method", request.getMethod(),
+                    "uri", uri,
+                    "outcome", Outcome.forStatus(response.getStatus()).name());
+            DistributionSummary.builder(STATEMENTS_METRIC)
+                    .description("SQL statements executed per HTTP request")
+                    .baseUnit("statements")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(stats.getStatements());
+            Timer.builder(TIME_METRIC)
+                    .description("Time spent executing SQL per HTTP request")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+            warnIfExpensive(request.getMethod(), uri, stats);
+        }
+    }
+
+    private void warnIfExpensive(String method, String uri, RequestDbStats stats) {
+        if (stats.getStatements() > warnStatements || stats.getNanos() > warnNanos) {
+            logger.warn("{} {} ran {} SQL statements taking {} ms", method, uri, stats.getStatements(),
+                    TimeUnit.NANOSECONDS.toMillis(stats.getNanos()));
+        }
+        Map.Entry<String, Integer> repeated = stats.mostRepeated();
+        if (repeated != null && repeated.getValue() >= warnRepeated) {
+            logger.warn("{} {} ran the same statement {} times (possible N+1): {}", method, uri,
+                    repeated.getValue(), repeated.getKey());
+        }
+    }
+}
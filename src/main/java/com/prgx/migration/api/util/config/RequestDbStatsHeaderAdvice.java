@@ -0,0 +1,41 @@
+package com.prgx.migration.api.util.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+
+/**
+ * Development aid: reports the request's {@link RequestDbStats} as {@code X-DB-Statements} and a
+ * {@code Server-Timing: db} entry (shown by browser dev tools). Headers must be set before the body
+ * is written, so responses without a body (304, 204) do not carry them.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "app.db.request-stats.headers", havingValue = "true")
+public class RequestDbStatsHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestDbStats stats = RequestDbStats.current();
+        if (stats != null) {
+            response.getHeaders().set("X-DB-Statements", Integer.toString(stats.getStatements()));
+            response.getHeaders().add("Server-Timing",
+                    String.format(Locale.ROOT, "db;dur=%.3f;desc=\"%d statements\"",
+                            stats.getNanos() / 1_000_000.0, stats.getStatements()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,33 @@
+package com.prgx.migration.api.util.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * datasource-proxy listener that adds each executed statement to the current {@link RequestDbStats}.
+ * Times are taken with {@link System#nanoTime()}, since the proxy's own elapsed time is in whole milliseconds.
+ */
+public class RequestDbStatsListener implements QueryExecutionListener {
+
+    private static final String START_NANOS = RequestDbStatsListener.class.getName() + ".start";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (RequestDbStats.current() != null) {
+            execInfo.addCustomValue(START_NANOS, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestDbStats stats = RequestDbStats.current();
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        if (stats != null && start != null) {
+            String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+            stats.record(sql, System.nanoTime() - start, execInfo.isBatch());
+        }
+    }
+}
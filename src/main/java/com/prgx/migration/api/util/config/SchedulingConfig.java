@@ -0,0 +1,12 @@
+package com.prgx.migration.api.util.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled maintenance jobs such as the guest tombstone purge
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
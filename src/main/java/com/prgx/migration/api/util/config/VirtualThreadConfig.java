@@ -0,0 +1,71 @@
+package com.prgx.migration.api.util.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Extra wiring for the virtual-thread execution mode ({@code spring.threads.virtual.enabled=true}).
+ * Spring Boot already runs Tomcat request handling, and therefore the @Transactional service calls
+ * made on the request thread, on virtual threads; this adds the bulkhead that keeps them from all
+ * competing for the JDBC pool at once.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    /** Used only when no Hikari pool is found to derive the limit from */
+    private static final int FALLBACK_MAX_CONCURRENT_REQUESTS = 200;
+
+    /**
+     * Without {@code max-concurrent-requests} the limit is the pool size times {@code requests-per-connection}:
+     * requests beyond that would only wait for a connection, holding their memory meanwhile.
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${app.execution.virtual.max-concurrent-requests:#{null}}") Integer configuredMaxConcurrentRequests,
+            @Value("${app.execution.virtual.requests-per-connection:2}") int requestsPerConnection,
+            @Value("${app.execution.virtual.acquire-timeout:5s}") Duration acquireTimeout,
+            ObjectProvider<DataSource> dataSource) {
+        // The pool sits behind the statement-counting proxy (MetricsConfig), which only unwraps to an interface
+        DataSource candidate = dataSource.getIfAvailable();
+        HikariDataSource pool = candidate != null
+                ? DataSourceUnwrapper.unwrap(candidate, HikariConfigMXBean.class, HikariDataSource.class)
+                : null;
+        Integer poolLimit = pool != null ? pool.getMaximumPoolSize() * requestsPerConnection : null;
+
+        int maxConcurrentRequests;
+        if (configuredMaxConcurrentRequests != null) {
+            maxConcurrentRequests = configuredMaxConcurrentRequests;
+            if (poolLimit != null && maxConcurrentRequests > poolLimit) {
+                logger.warn("app.execution.virtual.max-concurrent-requests={} is above {} ({} JDBC connections x {}); "
+                                + "requests beyond that queue on the pool and fail after its connection-timeout",
+                        maxConcurrentRequests, poolLimit, pool.getMaximumPoolSize(), requestsPerConnection);
+            }
+        } else {
+            maxConcurrentRequests = poolLimit != null ? poolLimit : FALLBACK_MAX_CONCURRENT_REQUESTS;
+        }
+        logger.info("Virtual-thread execution mode: max {} concurrent API requests sharing {} JDBC connections",
+                maxConcurrentRequests, pool != null ? pool.getMaximumPoolSize() : "?");
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(maxConcurrentRequests, acquireTimeout));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,36 @@
+package com.prgx.migration.api.util.controller;
+
+import com.prgx.migration.api.util.security.JwtAuthenticationFilter;
+import com.prgx.migration.api.util.service.JwtService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller for the authenticated user's session
+ */
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class AuthController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
+    private final JwtService jwtService;
+
+    /**
+     * Log out by revoking the bearer token of this request; later requests with it get 401
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal Long userId, HttpServletRequest request) {
+        logger.info("POST /api/auth/logout - User: {}", userId);
+        jwtService.revokeToken(JwtAuthenticationFilter.bearerToken(request));
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,19 +1,33 @@
 package com.prgx.migration.api.util.controller;
 
+import com.prgx.migration.api.util.dto.request.GuestBatchRequest;
+import com.prgx.migration.api.util.dto.request.GuestPatchRequest;
 import com.prgx.migration.api.util.dto.request.GuestRequest;
+import com.prgx.migration.api.util.dto.response.GuestBatchResponse;
+import com.prgx.migration.api.util.dto.response.GuestPageResponse;
 import com.prgx.migration.api.util.dto.response.GuestResponse;
+import com.prgx.migration.api.util.dto.response.GuestSearchResponse;
+import com.prgx.migration.api.util.dto.response.GuestStatsResponse;
+import com.prgx.migration.api.util.dto.response.GuestSyncResponse;
+import com.prgx.migration.api.util.service.GuestChangeFeed;
+import com.prgx.migration.api.util.service.GuestETags;
 import com.prgx.migration.api.util.service.GuestService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -26,28 +40,116 @@ public class GuestController {
 
     private static final Logger logger = LoggerFactory.getLogger(GuestController.class);
 
+    /**
+     * Clients may keep responses but must revalidate them with If-None-Match before reuse
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     private final GuestService guestService;
+    private final GuestChangeFeed guestChangeFeed;
 
     /**
-     * Get all guests for the authenticated user
+     * Get a page of guests for the authenticated user.
+     * Pass the returned {@code nextCursor} as {@code cursor} to fetch the following page.
+     * Answers 304 without reading the page when If-None-Match carries the current list version.
      */
     @GetMapping
-    public ResponseEntity<List<GuestResponse>> getAllGuests(@AuthenticationPrincipal Long userId) {
-        logger.info("GET /api/guests - User: {}", userId);
-        List<GuestResponse> guests = guestService.getAllGuestsByUserId(userId);
-        return ResponseEntity.ok(guests);
+    public ResponseEntity<GuestPageResponse> getAllGuests(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @AuthenticationPrincipal Long userId,
+            WebRequest webRequest) {
+        logger.info("GET /api/guests - User: {}, Cursor: {}, Size: {}", userId, cursor, size);
+        String eTag = guestService.getGuestListETag(userId);
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified();
+        }
+        GuestPageResponse page = guestService.getGuestPage(userId, cursor, size);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(page);
+    }
+
+    /**
+     * Export all guests for the authenticated user as newline-delimited JSON.
+     * The body is streamed chunk by chunk, so the first lines arrive before the last rows are read;
+     * downloads still running after spring.mvc.async.request-timeout are cut off.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportGuests(@AuthenticationPrincipal Long userId) {
+        logger.info("GET /api/guests/export - User: {}", userId);
+        StreamingResponseBody body = out -> guestService.exportGuests(userId, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"guests.ndjson\"")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Get guests created, updated or deleted since {@code since}, a cursor from a previous response
+     * (or an ISO-8601 local date-time). Without {@code since} every guest is returned as an upsert.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<GuestSyncResponse> getGuestChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal Long userId) {
+        logger.info("GET /api/guests/changes - User: {}, Since: {}, Limit: {}", userId, since, limit);
+        return ResponseEntity.ok(guestService.getGuestChanges(userId, since, limit));
+    }
+
+    /**
+     * Stream the authenticated user's guest changes as Server-Sent Events.
+     * A reconnecting client sends the last event id it received (Last-Event-ID header or
+     * {@code lastEventId} parameter) to get the changes it missed, or a {@code reset} event
+     * when they are no longer buffered. Like every API call this needs the bearer token, which a
+     * browser {@code EventSource} cannot send; browsers read the stream with a fetch-based client.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamGuestChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId,
+            @AuthenticationPrincipal Long userId) {
+        String resumeFrom = lastEventIdHeader != null ? lastEventIdHeader : lastEventId;
+        logger.info("GET /api/guests/events - User: {}, Last-Event-ID: {}", userId, resumeFrom);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                // Keep reverse proxies from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(guestChangeFeed.subscribe(userId, resumeFrom));
+    }
+
+    /**
+     * Search guests by name, email or phone; every word of {@code q} must match the start of a word
+     */
+    @GetMapping("/search")
+    public ResponseEntity<GuestSearchResponse> searchGuests(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer offset,
+            @AuthenticationPrincipal Long userId) {
+        logger.info("GET /api/guests/search - User: {}, Limit: {}, Offset: {}", userId, limit, offset);
+        return ResponseEntity.ok(guestService.searchGuests(userId, q, limit, offset));
     }
 
     /**
-     * Get a specific guest by ID
+     * Get a specific guest by ID.
+     * A conditional request is first checked against the guest's version alone.
      */
     @GetMapping("/{id}")
     public ResponseEntity<GuestResponse> getGuestById(
             @PathVariable Long id,
-            @AuthenticationPrincipal Long userId) {
+            @AuthenticationPrincipal Long userId,
+            WebRequest webRequest) {
         logger.info("GET /api/guests/{} - User: {}", id, userId);
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            String eTag = guestService.getGuestETag(id, userId);
+            if (webRequest.checkNotModified(eTag)) {
+                return notModified();
+            }
+        }
         GuestResponse guest = guestService.getGuestById(id, userId);
-        return ResponseEntity.ok(guest);
+        return ResponseEntity.ok().eTag(GuestETags.forGuest(guest)).cacheControl(REVALIDATE).body(guest);
     }
 
     /**
@@ -59,31 +161,62 @@ public class GuestController {
             @AuthenticationPrincipal Long userId) {
         logger.info("POST /api/guests - User: {}, Guest: {}", userId, request.getName());
         GuestResponse guest = guestService.createGuest(request, userId);
-        return ResponseEntity.status(HttpStatus.CREATED).body(guest);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(GuestETags.forGuest(guest)).body(guest);
+    }
+
+    /**
+     * Create, update and delete many guests in one transaction, with a result per operation
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<GuestBatchResponse> processBatch(
+            @Valid @RequestBody GuestBatchRequest request,
+            @AuthenticationPrincipal Long userId) {
+        logger.info("POST /api/guests/batch - User: {}, Operations: {}", userId, request.getOperations().size());
+        GuestBatchResponse response = guestService.processBatch(request.getOperations(), userId);
+        return ResponseEntity.ok(response);
     }
 
     /**
-     * Update an existing guest
+     * Update an existing guest.
+     * With If-Match, the update only applies while the guest still has that entity tag, else 412.
      */
     @PutMapping("/{id}")
     public ResponseEntity<GuestResponse> updateGuest(
             @PathVariable Long id,
             @Valid @RequestBody GuestRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @AuthenticationPrincipal Long userId) {
         logger.info("PUT /api/guests/{} - User: {}, Guest: {}", id, userId, request.getName());
-        GuestResponse guest = guestService.updateGuest(id, request, userId);
-        return ResponseEntity.ok(guest);
+        GuestResponse guest = guestService.updateGuest(id, request, userId, GuestETags.parseIfMatch(id, ifMatch));
+        return ResponseEntity.ok().eTag(GuestETags.forGuest(guest)).body(guest);
     }
 
     /**
-     * Delete a guest
+     * Change only the fields present in the body (JSON merge patch); a field sent as null is cleared.
+     * With If-Match, the patch only applies while the guest still has that entity tag, else 412.
+     */
+    @PatchMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, MERGE_PATCH_JSON})
+    public ResponseEntity<GuestResponse> patchGuest(
+            @PathVariable Long id,
+            @Valid @RequestBody GuestPatchRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @AuthenticationPrincipal Long userId) {
+        logger.info("PATCH /api/guests/{} - User: {}", id, userId);
+        GuestResponse guest = guestService.patchGuest(id, request, userId, GuestETags.parseIfMatch(id, ifMatch));
+        return ResponseEntity.ok().eTag(GuestETags.forGuest(guest)).body(guest);
+    }
+
+    /**
+     * Delete a guest.
+     * With If-Match, the guest is only deleted while it still has that entity tag, else 412.
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> deleteGuest(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @AuthenticationPrincipal Long userId) {
         logger.info("DELETE /api/guests/{} - User: {}", id, userId);
-        guestService.deleteGuest(id, userId);
+        guestService.deleteGuest(id, userId, GuestETags.parseIfMatch(id, ifMatch));
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -106,5 +239,22 @@ public class GuestController {
 
         return ResponseEntity.ok(response);
     }
-}
 
+    /**
+     * Get guest totals and a created-per-day histogram for the last {@code days} days
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<GuestStatsResponse> getGuestStats(
+            @RequestParam(required = false) Integer days,
+            @AuthenticationPrincipal Long userId) {
+        logger.info("GET /api/guests/stats - User: {}, Days: {}", userId, days);
+        return ResponseEntity.ok(guestService.getGuestStats(userId, days));
+    }
+
+    /**
+     * WebRequest#checkNotModified has already set the status and the ETag header
+     */
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.prgx.migration.api.util.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a batch of guest create/update/delete operations.
+ * Operations are validated individually so one bad item does not reject the whole batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GuestBatchRequest {
+
+    @NotEmpty(message = "At least one operation is required")
+    private List<Operation> operations;
+
+    public enum OperationType {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Operation {
+        private OperationType op;
+
+        /**
+         * Target guest for UPDATE and DELETE
+         */
+        private Long id;
+
+        /**
+         * Guest fields for CREATE and UPDATE
+         */
+        private GuestRequest guest;
+    }
+}
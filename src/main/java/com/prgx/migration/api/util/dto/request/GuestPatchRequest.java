@@ -0,0 +1,36 @@
+package com.prgx.migration.api.util.dto.request;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Optional;
+
+/**
+ * Partial guest update with JSON merge-patch semantics: a field left out is unchanged
+ * ({@code null} here), a field sent as {@code null} is cleared ({@link Optional#empty()}).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GuestPatchRequest {
+
+    private Optional<@NotBlank(message = "Guest name is required")
+            @Size(min = 2, max = 255, message = "Name must be between 2 and 255 characters") String> name;
+
+    private Optional<@Email(message = "Invalid email format")
+            @Size(max = 255, message = "Email must not exceed 255 characters") String> email;
+
+    private Optional<@Size(max = 50, message = "Phone must not exceed 50 characters") String> phone;
+
+    /**
+     * Cleared means the default of 1, as in {@link GuestRequest}
+     */
+    private Optional<@Min(value = 1, message = "Number of guests must be at least 1") Integer> numOfGuests;
+}
@@ -0,0 +1,43 @@
+package com.prgx.migration.api.util.dto.response;
+
+import com.prgx.migration.api.util.dto.request.GuestBatchRequest;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the outcome of a guest batch, with one result per submitted operation
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GuestBatchResponse {
+
+    private int created;
+    private int updated;
+    private int deleted;
+    private int failed;
+    private List<ItemResult> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ItemResult {
+        /**
+         * Position of the operation in the request
+         */
+        private int index;
+        private GuestBatchRequest.OperationType op;
+        /**
+         * HTTP status the equivalent single-item call would have returned
+         */
+        private int status;
+        private Long id;
+        private String error;
+    }
+}
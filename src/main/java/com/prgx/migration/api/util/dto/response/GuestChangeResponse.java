@@ -0,0 +1,25 @@
+package com.prgx.migration.api.util.dto.response;
+
+import com.prgx.migration.api.util.event.GuestChangedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one guest change delivered through the change feed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GuestChangeResponse {
+
+    private GuestChangedEvent.Type type;
+    private Long guestId;
+
+    /**
+     * State after the change, null for deletions
+     */
+    private GuestResponse guest;
+}
@@ -0,0 +1,27 @@
+package com.prgx.migration.api.util.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a keyset-paginated page of guests
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GuestPageResponse {
+
+    private List<GuestResponse> items;
+    private int size;
+    private boolean hasMore;
+
+    /**
+     * Opaque cursor to pass back as {@code cursor} to fetch the next page, null on the last page
+     */
+    private String nextCursor;
+}
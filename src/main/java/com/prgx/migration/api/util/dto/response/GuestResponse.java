@@ -24,5 +24,6 @@ public class GuestResponse {
     private Long userId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
 
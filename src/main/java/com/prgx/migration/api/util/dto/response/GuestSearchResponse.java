@@ -0,0 +1,24 @@
+package com.prgx.migration.api.util.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one page of guest search results, in id order
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GuestSearchResponse {
+
+    private String query;
+    private List<GuestResponse> items;
+    private int offset;
+    private int limit;
+    private boolean hasMore;
+}
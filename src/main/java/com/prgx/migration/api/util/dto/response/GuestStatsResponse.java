@@ -0,0 +1,46 @@
+package com.prgx.migration.api.util.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for aggregated guest statistics of a user
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GuestStatsResponse {
+
+    private long guests;
+
+    /**
+     * Sum of numOfGuests over all guests
+     */
+    private long headcount;
+
+    private long withEmail;
+    private long withoutEmail;
+
+    /**
+     * Guests created on each of the last {@code days} days, oldest first; days without guests are omitted
+     */
+    private int days;
+    private List<DailyCount> createdPerDay;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DailyCount {
+
+        private LocalDate date;
+        private long guests;
+        private long headcount;
+    }
+}
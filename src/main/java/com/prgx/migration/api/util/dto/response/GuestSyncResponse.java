@@ -0,0 +1,53 @@
+package com.prgx.migration.api.util.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for one page of guest changes since a sync cursor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GuestSyncResponse {
+
+    /**
+     * Guests created or updated since the cursor, to be inserted or replaced by id
+     */
+    private List<GuestResponse> upserts;
+
+    /**
+     * Guests deleted since the cursor
+     */
+    private List<Deletion> deletions;
+
+    private boolean hasMore;
+
+    /**
+     * Cursor to pass back as {@code since}: for the next page while {@code hasMore}, otherwise
+     * for the next sync. Changes close to the cursor may be delivered again.
+     */
+    private String nextSince;
+
+    /**
+     * The cursor is older than the tombstone retention period, so deletions may have been lost;
+     * the client should discard its copy and sync again without {@code since}
+     */
+    private boolean fullResyncRequired;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Deletion {
+
+        private Long id;
+        private LocalDateTime deletedAt;
+    }
+}
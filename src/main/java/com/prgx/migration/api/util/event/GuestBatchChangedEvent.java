@@ -0,0 +1,19 @@
+package com.prgx.migration.api.util.event;
+
+import java.util.List;
+
+/**
+ * Published once by GuestService for a whole batch instead of one {@link GuestChangedEvent} per item,
+ * so listeners that only invalidate do it once per batch.
+ *
+ * @param changes the batch's writes in the order they were applied
+ */
+public record GuestBatchChangedEvent(Long userId, List<GuestChangedEvent> changes) {
+
+    /**
+     * Whether any change adds or removes a guest, i.e. is not an update
+     */
+    public boolean changesMembership() {
+        return changes.stream().anyMatch(change -> change.type() != GuestChangedEvent.Type.UPDATED);
+    }
+}
@@ -0,0 +1,30 @@
+package com.prgx.migration.api.util.event;
+
+import com.prgx.migration.api.util.dto.response.GuestResponse;
+
+/**
+ * Published by GuestService for every guest write. Listeners that keep derived state
+ * (caches, indexes) should react after commit so they never observe rolled-back changes.
+ *
+ * @param guest state after the change, null for deletions
+ */
+public record GuestChangedEvent(Type type, Long userId, Long guestId, GuestResponse guest) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static GuestChangedEvent created(GuestResponse guest) {
+        return new GuestChangedEvent(Type.CREATED, guest.getUserId(), guest.getId(), guest);
+    }
+
+    public static GuestChangedEvent updated(GuestResponse guest) {
+        return new GuestChangedEvent(Type.UPDATED, guest.getUserId(), guest.getId(), guest);
+    }
+
+    public static GuestChangedEvent deleted(Long userId, Long guestId) {
+        return new GuestChangedEvent(Type.DELETED, userId, guestId, null);
+    }
+}
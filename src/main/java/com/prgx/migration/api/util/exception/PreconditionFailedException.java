@@ -0,0 +1,11 @@
+package com.prgx.migration.api.util.exception;
+
+/**
+ * Exception thrown when a conditional request (If-Match) no longer matches the resource
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -14,15 +14,23 @@ import java.time.LocalDateTime;
  * Guest entity representing guest entries in the system
  */
 @Entity
-@Table(name = "guests")
+@Table(name = "guests", indexes = {
+        @Index(name = "idx_guests_user_id_id", columnList = "user_id, id"),
+        @Index(name = "idx_guests_user_id_created_at", columnList = "user_id, created_at"),
+        @Index(name = "idx_guests_user_id_updated_at", columnList = "user_id, updated_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Guest {
 
+    /**
+     * Pooled sequence rather than IDENTITY so that inserts can be batched
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "guests_seq")
+    @SequenceGenerator(name = "guests_seq", sequenceName = "guests_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -44,8 +52,18 @@ public class Guest {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * Set on insert as well, so it always orders the incremental sync
+     */
     @UpdateTimestamp
-    @Column(name = "updated_at")
+    @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
+
+    /**
+     * Optimistic-lock version; also the varying part of the guest's entity tag
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
 
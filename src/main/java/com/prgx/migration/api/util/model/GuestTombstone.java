@@ -0,0 +1,38 @@
+package com.prgx.migration.api.util.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted guest, kept for the tombstone retention period so incremental sync
+ * clients learn about deletions
+ */
+@Entity
+@Table(name = "guest_tombstones", indexes = {
+        @Index(name = "idx_guest_tombstones_user_id_deleted_at", columnList = "user_id, deleted_at, guest_id"),
+        @Index(name = "idx_guest_tombstones_deleted_at", columnList = "deleted_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GuestTombstone {
+
+    /**
+     * Id of the deleted guest; guest ids come from a sequence and are never reused
+     */
+    @Id
+    @Column(name = "guest_id")
+    private Long guestId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
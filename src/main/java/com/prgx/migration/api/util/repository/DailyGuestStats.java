@@ -0,0 +1,12 @@
+package com.prgx.migration.api.util.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Aggregates over the guests of one user created on one day
+ *
+ * @param headcount sum of {@code numOfGuests}
+ * @param withEmail guests with a non-empty email address
+ */
+public record DailyGuestStats(LocalDate day, Long guests, Long headcount, Long withEmail) {
+}
@@ -0,0 +1,13 @@
+package com.prgx.migration.api.util.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fingerprint of one user's guest list. Creates and deletes change the count or the id sum (ids are
+ * never reused), updates raise the version sum, so any committed write changes it, whichever node
+ * made it and in whatever order concurrent transactions commit.
+ *
+ * @param lastUpdatedAt newest {@code updatedAt}, or null when the user has no guests
+ */
+public record GuestListVersion(Long guests, Long idSum, Long versionSum, LocalDateTime lastUpdatedAt) {
+}
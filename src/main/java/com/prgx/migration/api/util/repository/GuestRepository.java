@@ -1,24 +1,119 @@
 package com.prgx.migration.api.util.repository;
 
+import com.prgx.migration.api.util.dto.response.GuestResponse;
 import com.prgx.migration.api.util.model.Guest;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Guest entity
  */
 @Repository
-public interface GuestRepository extends JpaRepository<Guest, Long> {
+public interface GuestRepository extends JpaRepository<Guest, Long>, GuestUpdateRepository {
 
-    List<Guest> findByUserId(Long userId);
+    /**
+     * Selects a {@link GuestResponse} straight from the row, so read paths skip entity
+     * instantiation, the persistence context and dirty-checking snapshots.
+     */
+    String GUEST_RESPONSE = "new com.prgx.migration.api.util.dto.response.GuestResponse("
+            + "g.id, g.name, g.email, g.phone, g.numOfGuests, g.userId, g.createdAt, g.updatedAt, g.version)";
+
+    /**
+     * Keyset page: guests of a user with an id strictly greater than {@code afterId}, in id order.
+     * Only the page size of the {@link Pageable} is meant to be used; the offset should stay at 0.
+     */
+    @Query("SELECT " + GUEST_RESPONSE + " FROM Guest g WHERE g.userId = :userId AND g.id > :afterId ORDER BY g.id")
+    List<GuestResponse> findPageByUserIdAfterId(@Param("userId") Long userId, @Param("afterId") Long afterId,
+                                                Pageable pageable);
+
+    /**
+     * Stream all guests of a user in id order through a JDBC cursor.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + GUEST_RESPONSE + " FROM Guest g WHERE g.userId = :userId ORDER BY g.id")
+    Stream<GuestResponse> streamByUserId(@Param("userId") Long userId);
+
+    /**
+     * Keyset page of a user's guests changed after ({@code after}, {@code afterId}), in (updatedAt, id) order
+     */
+    @Query("SELECT " + GUEST_RESPONSE + " FROM Guest g WHERE g.userId = :userId "
+            + "AND (g.updatedAt > :after OR (g.updatedAt = :after AND g.id > :afterId)) "
+            + "ORDER BY g.updatedAt, g.id")
+    List<GuestResponse> findChangedAfter(@Param("userId") Long userId, @Param("after") LocalDateTime after,
+                                         @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT " + GUEST_RESPONSE + " FROM Guest g WHERE g.id = :id AND g.userId = :userId")
+    Optional<GuestResponse> findResponseByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 
     Optional<Guest> findByIdAndUserId(Long id, Long userId);
 
-    void deleteByIdAndUserId(Long id, Long userId);
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Version of one guest, without loading the entity
+     */
+    @Query("SELECT g.version FROM Guest g WHERE g.id = :id AND g.userId = :userId")
+    Optional<Long> findVersionByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    List<Guest> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    /**
+     * Delete one guest of a user in one statement, without loading it first
+     *
+     * @return 1 when the user's guest was deleted, 0 when it does not exist
+     */
+    @Modifying
+    @Query("DELETE FROM Guest g WHERE g.id = :id AND g.userId = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Delete one guest of a user only while its version is one of {@code versions} (If-Match)
+     *
+     * @return 1 when the guest was deleted, 0 when it does not exist or has moved on
+     */
+    @Modifying
+    @Query("DELETE FROM Guest g WHERE g.id = :id AND g.userId = :userId AND g.version IN :versions")
+    int deleteByIdAndUserIdAndVersionIn(@Param("id") Long id, @Param("userId") Long userId,
+                                        @Param("versions") Collection<Long> versions);
+
+    /**
+     * Delete several guests of a user in one statement, without loading them first
+     */
+    @Modifying
+    @Query("DELETE FROM Guest g WHERE g.userId = :userId AND g.id IN :ids")
+    int deleteByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 
     long countByUserId(Long userId);
-}
 
+    /**
+     * Fingerprint of a user's guest list in one aggregate query, for the list entity tag
+     */
+    @Query("SELECT new com.prgx.migration.api.util.repository.GuestListVersion("
+            + "COUNT(g), COALESCE(SUM(g.id), 0), COALESCE(SUM(g.version), 0), MAX(g.updatedAt)) "
+            + "FROM Guest g WHERE g.userId = :userId")
+    GuestListVersion findListVersionByUserId(@Param("userId") Long userId);
+
+    /**
+     * Per-day counts, headcounts and email coverage of a user's guests, by creation date, in one aggregate query
+     */
+    @Query("SELECT new com.prgx.migration.api.util.repository.DailyGuestStats("
+            + "CAST(g.createdAt AS LocalDate), COUNT(g), COALESCE(SUM(g.numOfGuests), 0), "
+            + "SUM(CASE WHEN g.email IS NOT NULL AND g.email <> '' THEN 1 ELSE 0 END)) "
+            + "FROM Guest g WHERE g.userId = :userId "
+            + "GROUP BY CAST(g.createdAt AS LocalDate) ORDER BY CAST(g.createdAt AS LocalDate)")
+    List<DailyGuestStats> findDailyStatsByUserId(@Param("userId") Long userId);
+}
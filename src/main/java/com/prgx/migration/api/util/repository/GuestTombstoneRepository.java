@@ -0,0 +1,39 @@
+package com.prgx.migration.api.util.repository;
+
+import com.prgx.migration.api.util.dto.response.GuestSyncResponse;
+import com.prgx.migration.api.util.model.GuestTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for GuestTombstone entity
+ */
+@Repository
+public interface GuestTombstoneRepository extends JpaRepository<GuestTombstone, Long> {
+
+    /**
+     * Keyset page of a user's deletions after ({@code after}, {@code afterId}), in (deletedAt, guestId) order
+     */
+    @Query("SELECT new com.prgx.migration.api.util.dto.response.GuestSyncResponse$Deletion(t.guestId, t.deletedAt) "
+            + "FROM GuestTombstone t WHERE t.userId = :userId "
+            + "AND (t.deletedAt > :after OR (t.deletedAt = :after AND t.guestId > :afterId)) "
+            + "ORDER BY t.deletedAt, t.guestId")
+    List<GuestSyncResponse.Deletion> findDeletedAfter(@Param("userId") Long userId,
+                                                      @Param("after") LocalDateTime after,
+                                                      @Param("afterId") Long afterId,
+                                                      Pageable pageable);
+
+    /**
+     * Drop tombstones that have passed the retention period
+     */
+    @Modifying
+    @Query("DELETE FROM GuestTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteByDeletedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
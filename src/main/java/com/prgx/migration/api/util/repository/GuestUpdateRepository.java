@@ -0,0 +1,23 @@
+package com.prgx.migration.api.util.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Conditional single-statement guest updates that write only the given attributes
+ */
+public interface GuestUpdateRepository {
+
+    /**
+     * {@code UPDATE guests SET <changes>, updated_at = ?, version = version + 1 WHERE id = ? AND user_id = ?},
+     * also requiring {@code version IN (expectedVersions)} when those are given.
+     * Bulk updates bypass @UpdateTimestamp and @Version, so both are set here.
+     *
+     * @param changes          attribute name to new value, {@code null} values included
+     * @param expectedVersions {@code null} for an unconditional update; must not be empty otherwise
+     * @return 1 when the guest was updated, 0 when it does not exist or its version did not match
+     */
+    int updateFields(Long id, Long userId, Map<String, Object> changes, LocalDateTime updatedAt,
+                     Collection<Long> expectedVersions);
+}
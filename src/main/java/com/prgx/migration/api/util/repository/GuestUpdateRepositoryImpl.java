@@ -0,0 +1,47 @@
+package com.prgx.migration.api.util.repository;
+
+import com.prgx.migration.api.util.model.Guest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the UPDATE with the Criteria API, so a PATCH touching one column sets only that column
+ */
+class GuestUpdateRepositoryImpl implements GuestUpdateRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateFields(Long id, Long userId, Map<String, Object> changes, LocalDateTime updatedAt,
+                            Collection<Long> expectedVersions) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Guest> update = cb.createCriteriaUpdate(Guest.class);
+        Root<Guest> guest = update.from(Guest.class);
+        Path<Long> version = guest.get("version");
+
+        changes.forEach((attribute, value) -> update.set(guest.get(attribute), value));
+        update.set(guest.<LocalDateTime>get("updatedAt"), updatedAt);
+        update.set(version, cb.sum(version, 1L));
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(guest.get("id"), id));
+        where.add(cb.equal(guest.get("userId"), userId));
+        if (expectedVersions != null) {
+            where.add(version.in(expectedVersions));
+        }
+        update.where(where.toArray(new Predicate[0]));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -0,0 +1,74 @@
+package com.prgx.migration.api.util.security;
+
+import com.prgx.migration.api.util.service.JwtService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Authenticates requests carrying an {@code Authorization: Bearer} JWT.
+ * The principal is the user id expected by {@code @AuthenticationPrincipal Long userId};
+ * the verified {@link JwtPrincipal} is kept as the authentication details for reuse later in the request.
+ * Requests without a valid token pass through unauthenticated and are rejected by the authorization rules.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+
+    public JwtAuthenticationFilter(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = bearerToken(request);
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            authenticate(token);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * The token of an {@code Authorization: Bearer} header (scheme matched case-insensitively), or null
+     */
+    public static String bearerToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        return header.substring(BEARER_PREFIX.length()).trim();
+    }
+
+    private void authenticate(String token) {
+        TokenVerification verification = jwtService.verifyToken(token);
+        if (!verification.isValid()) {
+            logger.debug("Rejected bearer token: {}", verification.failure());
+            return;
+        }
+
+        JwtPrincipal principal = verification.principal();
+        UsernamePasswordAuthenticationToken authentication =
+                UsernamePasswordAuthenticationToken.authenticated(principal.userId(), null, Collections.emptyList());
+        authentication.setDetails(principal);
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+    }
+}
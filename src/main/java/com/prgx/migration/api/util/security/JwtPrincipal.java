@@ -0,0 +1,9 @@
+package com.prgx.migration.api.util.security;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of the claims of a verified JWT, built once per request
+ */
+public record JwtPrincipal(Long userId, String email, String provider, Instant expiresAt) {
+}
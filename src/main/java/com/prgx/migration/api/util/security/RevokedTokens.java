@@ -0,0 +1,78 @@
+package com.prgx.migration.api.util.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Size-bounded deny-list of revoked JWTs, keyed like {@link VerifiedTokenCache} by a SHA-256 hash
+ * of the token. An entry is kept until the token's own {@code exp}, after which the signature check
+ * rejects it as expired anyway. The list is held in memory: a revocation applies on the node that
+ * received it and does not survive a restart.
+ */
+@Component
+public class RevokedTokens {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevokedTokens.class);
+
+    public static final String CACHE_NAME = "jwt.revoked-tokens";
+
+    private final Cache<VerifiedTokenCache.TokenKey, Instant> revoked;
+
+    public RevokedTokens(@Value("${app.jwt.revocation.max-size:100000}") long maxSize,
+                         MeterRegistry meterRegistry) {
+        this.revoked = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .evictionListener((VerifiedTokenCache.TokenKey key, Instant expiresAt, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        logger.warn("Revoked token list is full ({} entries); a revoked token valid until {} "
+                                + "is accepted again", maxSize, expiresAt);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, revoked, CACHE_NAME);
+    }
+
+    /**
+     * Reject a token from now on, until {@code expiresAt}
+     */
+    public void revoke(String token, Instant expiresAt) {
+        revoked.put(VerifiedTokenCache.TokenKey.of(token), expiresAt);
+    }
+
+    public boolean isRevoked(String token) {
+        return revoked.getIfPresent(VerifiedTokenCache.TokenKey.of(token)) != null;
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<VerifiedTokenCache.TokenKey, Instant> {
+
+        @Override
+        public long expireAfterCreate(VerifiedTokenCache.TokenKey key, Instant expiresAt, long currentTime) {
+            return Math.max(0L, Duration.between(Instant.now(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(VerifiedTokenCache.TokenKey key, Instant expiresAt, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(key, expiresAt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(VerifiedTokenCache.TokenKey key, Instant expiresAt, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.prgx.migration.api.util.security;
+
+/**
+ * Outcome of verifying a JWT: either the verified principal or the reason it was rejected
+ */
+public record TokenVerification(JwtPrincipal principal, Failure failure) {
+
+    public enum Failure {
+        MISSING("JWT claims string is empty"),
+        MALFORMED("Invalid JWT token"),
+        INVALID_SIGNATURE("Invalid JWT signature"),
+        EXPIRED("Expired JWT token"),
+        UNSUPPORTED("Unsupported JWT token"),
+        REVOKED("Revoked JWT token"),
+        INVALID_CLAIMS("Invalid JWT claims");
+
+        private final String message;
+
+        Failure(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    public static TokenVerification success(JwtPrincipal principal) {
+        return new TokenVerification(principal, null);
+    }
+
+    public static TokenVerification failure(Failure failure) {
+        return new TokenVerification(null, failure);
+    }
+
+    public boolean isValid() {
+        return principal != null;
+    }
+}
@@ -0,0 +1,140 @@
+package com.prgx.migration.api.util.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Size-bounded cache of verified JWTs so repeated requests with the same bearer token skip
+ * signature verification and claims parsing. Entries are keyed by a SHA-256 hash of the token
+ * and expire no later than the token's {@code exp} claim. Each entry records the signing-key
+ * generation it was verified under and is only served for that generation, so a rotation cannot
+ * be undone by a verification that finishes after it.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    public static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private final Cache<TokenKey, Entry> cache;
+
+    public VerifiedTokenCache(@Value("${app.jwt.cache.enabled:true}") boolean enabled,
+                              @Value("${app.jwt.cache.max-size:10000}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        if (!enabled) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Get the cached principal for a token verified under key {@code generation}, or null when it
+     * has not been verified recently with that key
+     */
+    public JwtPrincipal get(String token, long generation) {
+        Entry entry = cache != null ? cache.getIfPresent(TokenKey.of(token)) : null;
+        return entry != null && entry.generation() == generation ? entry.principal() : null;
+    }
+
+    /**
+     * Remember a principal verified under key {@code generation}. Tokens without an expiry are not cached.
+     */
+    public void put(String token, long generation, JwtPrincipal principal) {
+        if (cache != null && principal.expiresAt() != null) {
+            cache.put(TokenKey.of(token), new Entry(principal, generation));
+        }
+    }
+
+    /**
+     * Drop a single token; revocation itself is {@link RevokedTokens}
+     */
+    public void invalidate(String token) {
+        if (cache != null) {
+            cache.invalidate(TokenKey.of(token));
+        }
+    }
+
+    /**
+     * Drop every cached verification, e.g. after the signing key was rotated
+     */
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    private record Entry(JwtPrincipal principal, long generation) {
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<TokenKey, Entry> {
+
+        @Override
+        public long expireAfterCreate(TokenKey key, Entry entry, long currentTime) {
+            return Math.max(0L, Duration.between(Instant.now(), entry.principal().expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenKey key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenKey key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * SHA-256 digest of a token, so raw bearer tokens are never retained in memory
+     */
+    static final class TokenKey {
+
+        private final byte[] digest;
+        private final int hash;
+
+        private TokenKey(byte[] digest) {
+            this.digest = digest;
+            this.hash = Arrays.hashCode(digest);
+        }
+
+        byte[] digest() {
+            return digest.clone();
+        }
+
+        static TokenKey of(String token) {
+            try {
+                MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+                return new TokenKey(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("SHA-256 not available", ex);
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof TokenKey that && Arrays.equals(digest, that.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
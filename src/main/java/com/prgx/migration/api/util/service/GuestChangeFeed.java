@@ -0,0 +1,287 @@
+package com.prgx.migration.api.util.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.prgx.migration.api.util.dto.response.GuestChangeResponse;
+import com.prgx.migration.api.util.event.GuestBatchChangedEvent;
+import com.prgx.migration.api.util.event.GuestChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of committed guest changes to Server-Sent Events subscribers, per user.
+ * <p>
+ * Each user's feed numbers its changes and keeps the last {@code buffer-size} of them, so a client
+ * reconnecting with {@code Last-Event-ID} receives what it missed. Every subscriber has a bounded
+ * queue drained by its own virtual thread; publishing only offers to those queues, and a
+ * subscriber whose queue is full is disconnected instead of slowing down writers.
+ * Event ids are {@code <epoch>-<sequence>}; an id from another run or one that has left the
+ * buffer is answered with a {@code reset} event, after which the client should reload its data.
+ * A batch of more changes than half a subscriber queue is published as a single {@code reset} too,
+ * so large imports do not disconnect subscribers that are keeping up.
+ */
+@Component
+public class GuestChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(GuestChangeFeed.class);
+
+    public static final String EVENT_READY = "ready";
+    public static final String EVENT_RESET = "reset";
+
+    /** No Last-Event-ID: start from now */
+    private static final long FROM_NOW = -1;
+    /** A Last-Event-ID that is not from this run: the client has to reload */
+    private static final long UNKNOWN = -2;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Cache<Long, UserFeed> feeds;
+    private final int bufferSize;
+    private final int queueCapacity;
+    private final int maxSubscribersPerUser;
+    private final Duration heartbeatInterval;
+    private final Duration connectionTimeout;
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Counter dropped;
+
+    public GuestChangeFeed(@Value("${app.guests.feed.buffer-size:256}") int bufferSize,
+                           @Value("${app.guests.feed.queue-capacity:64}") int queueCapacity,
+                           @Value("${app.guests.feed.max-subscribers-per-user:10}") int maxSubscribersPerUser,
+                           @Value("${app.guests.feed.heartbeat-interval:25s}") Duration heartbeatInterval,
+                           @Value("${app.guests.feed.connection-timeout:30m}") Duration connectionTimeout,
+                           @Value("${app.guests.feed.idle-expiry:10m}") Duration idleExpiry,
+                           MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribersPerUser = maxSubscribersPerUser;
+        this.heartbeatInterval = heartbeatInterval;
+        this.connectionTimeout = connectionTimeout;
+        // Heartbeats and changes both count as access, so only feeds without subscribers or writes expire
+        this.feeds = Caffeine.newBuilder()
+                .expireAfterAccess(idleExpiry)
+                .build();
+        Gauge.builder("guests.feed.subscribers", subscribers, AtomicInteger::get)
+                .description("Open change-feed connections")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("guests.feed.dropped")
+                .description("Change-feed subscribers disconnected because they could not keep up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a feed for a user, resuming after {@code lastEventId} when it is still buffered
+     */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        SseEmitter emitter = newEmitter();
+        UserFeed feed = feeds.get(userId, key -> new UserFeed());
+        Subscriber subscriber = new Subscriber(userId, feed, emitter);
+        feed.add(subscriber, parseSequence(lastEventId));
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        Thread.ofVirtual().name("guest-feed-" + userId).start(subscriber::drain);
+        return emitter;
+    }
+
+    /**
+     * Overridden in tests to observe what subscribers are sent
+     */
+    SseEmitter newEmitter() {
+        return new SseEmitter(connectionTimeout.toMillis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGuestChanged(GuestChangedEvent event) {
+        publish(event.userId(), List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGuestBatchChanged(GuestBatchChangedEvent event) {
+        publish(event.userId(), event.changes());
+    }
+
+    private void publish(Long userId, List<GuestChangedEvent> changes) {
+        UserFeed feed = feeds.getIfPresent(userId);
+        if (feed == null) {
+            return;
+        }
+        if (changes.size() > queueCapacity / 2) {
+            // One event in place of a batch that would fill the queues of subscribers keeping up fine,
+            // leaving room for what they still have queued; clients reload as after any reset
+            feed.publish(EVENT_RESET, "batch");
+        } else {
+            for (GuestChangedEvent change : changes) {
+                feed.publish(change.type().name().toLowerCase(Locale.ROOT), GuestChangeResponse.builder()
+                        .type(change.type())
+                        .guestId(change.guestId())
+                        .guest(change.guest())
+                        .build());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        feeds.asMap().values().forEach(UserFeed::closeAll);
+    }
+
+    /**
+     * @return the sequence encoded in an event id of this run, {@link #FROM_NOW} or {@link #UNKNOWN}
+     */
+    private long parseSequence(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return FROM_NOW;
+        }
+        if (!lastEventId.startsWith(epoch + "-")) {
+            return UNKNOWN;
+        }
+        try {
+            long sequence = Long.parseLong(lastEventId.substring(epoch.length() + 1));
+            return sequence >= 0 ? sequence : UNKNOWN;
+        } catch (NumberFormatException ex) {
+            return UNKNOWN;
+        }
+    }
+
+    private record FeedEvent(long sequence, String name, Object data) {
+    }
+
+    private final class UserFeed {
+
+        private final FeedEvent[] buffer = new FeedEvent[bufferSize];
+        private final List<Subscriber> members = new ArrayList<>();
+        private long lastSequence;
+
+        synchronized void publish(String name, Object data) {
+            FeedEvent event = new FeedEvent(++lastSequence, name, data);
+            buffer[(int) (event.sequence() % bufferSize)] = event;
+            List<Subscriber> slow = null;
+            for (Subscriber subscriber : members) {
+                if (!subscriber.offer(event)) {
+                    slow = slow == null ? new ArrayList<>() : slow;
+                    slow.add(subscriber);
+                }
+            }
+            if (slow != null) {
+                for (Subscriber subscriber : slow) {
+                    dropped.increment();
+                    logger.info("Dropping slow change-feed subscriber for user: {}", subscriber.userId);
+                    subscriber.close();
+                }
+            }
+        }
+
+        /**
+         * Registers the subscriber and queues its first events atomically with respect to publishing,
+         * so it sees every change after its starting point exactly once
+         */
+        synchronized void add(Subscriber subscriber, long resumeAfter) {
+            if (members.size() >= maxSubscribersPerUser) {
+                members.get(0).close();
+            }
+            long oldestBuffered = Math.max(1, lastSequence - bufferSize + 1);
+            long backlog = lastSequence - resumeAfter;
+            boolean resumable = resumeAfter >= 0 && resumeAfter >= oldestBuffered - 1
+                    && backlog >= 0 && backlog < queueCapacity;
+            if (resumable) {
+                subscriber.offer(new FeedEvent(resumeAfter, EVENT_READY, "resumed"));
+                for (long sequence = resumeAfter + 1; sequence <= lastSequence; sequence++) {
+                    subscriber.offer(buffer[(int) (sequence % bufferSize)]);
+                }
+            } else {
+                boolean fresh = resumeAfter == FROM_NOW;
+                subscriber.offer(new FeedEvent(lastSequence, fresh ? EVENT_READY : EVENT_RESET,
+                        fresh ? "subscribed" : "resync"));
+            }
+            members.add(subscriber);
+            subscribers.incrementAndGet();
+        }
+
+        synchronized void remove(Subscriber subscriber) {
+            if (members.remove(subscriber)) {
+                subscribers.decrementAndGet();
+            }
+        }
+
+        synchronized void closeAll() {
+            new ArrayList<>(members).forEach(Subscriber::close);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final Long userId;
+        private final UserFeed feed;
+        private final SseEmitter emitter;
+        private final BlockingQueue<FeedEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private volatile boolean closed;
+        private volatile Thread drainer;
+
+        Subscriber(Long userId, UserFeed feed, SseEmitter emitter) {
+            this.userId = userId;
+            this.feed = feed;
+            this.emitter = emitter;
+        }
+
+        boolean offer(FeedEvent event) {
+            return !closed && queue.offer(event);
+        }
+
+        void drain() {
+            drainer = Thread.currentThread();
+            try {
+                while (!closed) {
+                    FeedEvent event = queue.poll(heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("keepalive"));
+                        feeds.getIfPresent(userId);
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(epoch + "-" + event.sequence())
+                                .name(event.name())
+                                .data(event.data(), MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException ex) {
+                // Client went away or the emitter already completed
+                logger.debug("Change feed for user: {} ended: {}", userId, ex.getMessage());
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            feed.remove(this);
+            Thread thread = drainer;
+            if (thread != null && thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.prgx.migration.api.util.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.prgx.migration.api.util.event.GuestBatchChangedEvent;
+import com.prgx.migration.api.util.event.GuestChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of guest counts per user. Entries are dropped after every committed
+ * create or delete, so a cached count is always exact for writes made through this node.
+ */
+@Component
+public class GuestCountCache {
+
+    public static final String CACHE_NAME = "guests.count";
+
+    private final Cache<Long, Long> counts;
+
+    public GuestCountCache(@Value("${app.guests.count-cache.max-size:10000}") long maxSize,
+                           @Value("${app.guests.count-cache.expire-after-write:10m}") Duration expireAfterWrite,
+                           MeterRegistry meterRegistry) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, CACHE_NAME);
+    }
+
+    public long get(Long userId, Function<Long, Long> loader) {
+        return counts.get(userId, loader);
+    }
+
+    /**
+     * Invalidation (rather than applying +1/-1) stays exact even when a load races with the commit:
+     * Caffeine blocks the invalidation until an in-flight load for the same user has been stored.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGuestChanged(GuestChangedEvent event) {
+        if (event.type() != GuestChangedEvent.Type.UPDATED) {
+            counts.invalidate(event.userId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGuestBatchChanged(GuestBatchChangedEvent event) {
+        if (event.changesMembership()) {
+            counts.invalidate(event.userId());
+        }
+    }
+}
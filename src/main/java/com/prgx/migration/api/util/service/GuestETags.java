@@ -0,0 +1,71 @@
+package com.prgx.migration.api.util.service;
+
+import com.prgx.migration.api.util.dto.response.GuestResponse;
+import com.prgx.migration.api.util.repository.GuestListVersion;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Strong entity tags for guest resources.
+ * A single guest is tagged by its id and optimistic-lock version, which every write bumps, so the
+ * same tag serves If-None-Match and If-Match; a user's guest list by a {@link GuestListVersion}
+ * read from the database, so every node hands out the same tag for the same data.
+ */
+public final class GuestETags {
+
+    private GuestETags() {
+    }
+
+    public static String forGuest(GuestResponse guest) {
+        return forGuest(guest.getId(), guest.getVersion());
+    }
+
+    public static String forGuest(Long id, long version) {
+        return "\"g" + id + "-" + Long.toString(version, 36) + "\"";
+    }
+
+    /**
+     * Versions an If-Match header accepts for one guest.
+     * If-Match compares strongly, so weak tags and tags of other resources never match.
+     *
+     * @return {@code null} when the header is absent or {@code *} (no version condition),
+     * otherwise the versions named by this guest's tags, possibly none
+     */
+    public static Set<Long> parseIfMatch(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String prefix = "\"g" + id + "-";
+        Set<Long> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                try {
+                    versions.add(Long.parseLong(tag.substring(prefix.length(), tag.length() - 1), 36));
+                } catch (NumberFormatException ex) {
+                    // Not one of ours, so it cannot match
+                }
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Tag for every page of a user's guest list. Must be read before the page is queried:
+     * a version taken first can only be older than the data, never newer.
+     */
+    public static String forCollection(GuestListVersion version) {
+        LocalDateTime lastUpdatedAt = version.lastUpdatedAt();
+        long lastUpdatedMicros = lastUpdatedAt == null ? 0L
+                : ChronoUnit.MICROS.between(Instant.EPOCH, lastUpdatedAt.toInstant(ZoneOffset.UTC));
+        return "\"l" + Long.toString(version.guests(), 36)
+                + "-" + Long.toString(version.idSum(), 36)
+                + "-" + Long.toString(version.versionSum(), 36)
+                + "-" + Long.toString(lastUpdatedMicros, 36) + "\"";
+    }
+}
@@ -0,0 +1,36 @@
+package com.prgx.migration.api.util.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guest-specific meters that are not covered by @Timed service timers
+ */
+@Component
+public class GuestMetrics {
+
+    public static final String RESULT_SIZE = "guests.result.size";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DistributionSummary> resultSizes = new ConcurrentHashMap<>();
+
+    public GuestMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Number of guests (or changes) returned by a list-style operation
+     */
+    public void recordResultSize(String operation, long size) {
+        resultSizes.computeIfAbsent(operation, name -> DistributionSummary.builder(RESULT_SIZE)
+                        .description("Guests returned per list, search, sync or export call")
+                        .baseUnit("guests")
+                        .tag("operation", name)
+                        .register(meterRegistry))
+                .record(size);
+    }
+}
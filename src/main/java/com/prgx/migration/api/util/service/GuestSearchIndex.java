@@ -0,0 +1,101 @@
+package com.prgx.migration.api.util.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.prgx.migration.api.util.dto.response.GuestResponse;
+import com.prgx.migration.api.util.event.GuestBatchChangedEvent;
+import com.prgx.migration.api.util.event.GuestChangedEvent;
+import com.prgx.migration.api.util.repository.GuestRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Per-user {@link GuestTokenIndex}es. An index is built from the database on the user's first
+ * search and then kept current by committed guest changes made through this node; entries
+ * expire after {@code expire-after-write} so writes from other nodes show up eventually.
+ */
+@Component
+public class GuestSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(GuestSearchIndex.class);
+
+    public static final String CACHE_NAME = "guests.search-index";
+
+    private final Cache<Long, GuestTokenIndex> indexes;
+    private final GuestRepository guestRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public GuestSearchIndex(@Value("${app.guests.search.max-indexed-guests:1000000}") long maxIndexedGuests,
+                            @Value("${app.guests.search.expire-after-write:10m}") Duration expireAfterWrite,
+                            GuestRepository guestRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.indexes = Caffeine.newBuilder()
+                // Weighed by guest count when built; later writes are not re-weighed
+                .maximumWeight(maxIndexedGuests)
+                .weigher((Long userId, GuestTokenIndex index) -> Math.max(1, index.size()))
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, CACHE_NAME);
+        this.guestRepository = guestRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public GuestTokenIndex get(Long userId) {
+        return indexes.get(userId, this::build);
+    }
+
+    /**
+     * A change for a user whose index is being built invalidates it instead: Caffeine waits for
+     * the build to finish before removing it, so a build that missed the change is never kept.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGuestChanged(GuestChangedEvent event) {
+        apply(event.userId(), List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGuestBatchChanged(GuestBatchChangedEvent event) {
+        apply(event.userId(), event.changes());
+    }
+
+    private void apply(Long userId, List<GuestChangedEvent> changes) {
+        GuestTokenIndex index = indexes.getIfPresent(userId);
+        if (index == null) {
+            indexes.invalidate(userId);
+            return;
+        }
+        for (GuestChangedEvent change : changes) {
+            switch (change.type()) {
+                case CREATED, UPDATED -> index.put(change.guest());
+                case DELETED -> index.remove(change.guestId());
+            }
+        }
+    }
+
+    private GuestTokenIndex build(Long userId) {
+        long start = System.nanoTime();
+        GuestTokenIndex index = new GuestTokenIndex();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<GuestResponse> guests = guestRepository.streamByUserId(userId)) {
+                guests.forEach(index::put);
+            }
+        });
+        logger.info("Built search index for user: {} - {} guests in {} ms",
+                userId, index.size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return index;
+    }
+}
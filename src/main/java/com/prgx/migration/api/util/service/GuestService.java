@@ -1,98 +1,754 @@
 package com.prgx.migration.api.util.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.prgx.migration.api.util.dto.request.GuestBatchRequest;
+import com.prgx.migration.api.util.dto.request.GuestPatchRequest;
 import com.prgx.migration.api.util.dto.request.GuestRequest;
+import com.prgx.migration.api.util.dto.response.GuestBatchResponse;
+import com.prgx.migration.api.util.dto.response.GuestPageResponse;
 import com.prgx.migration.api.util.dto.response.GuestResponse;
+import com.prgx.migration.api.util.dto.response.GuestSearchResponse;
+import com.prgx.migration.api.util.dto.response.GuestStatsResponse;
+import com.prgx.migration.api.util.dto.response.GuestSyncResponse;
+import com.prgx.migration.api.util.event.GuestBatchChangedEvent;
+import com.prgx.migration.api.util.event.GuestChangedEvent;
+import com.prgx.migration.api.util.exception.PreconditionFailedException;
 import com.prgx.migration.api.util.exception.ResourceNotFoundException;
 import com.prgx.migration.api.util.exception.UnauthorizedException;
+import com.prgx.migration.api.util.exception.ValidationException;
 import com.prgx.migration.api.util.model.Guest;
+import com.prgx.migration.api.util.model.GuestTombstone;
+import com.prgx.migration.api.util.repository.DailyGuestStats;
 import com.prgx.migration.api.util.repository.GuestRepository;
+import com.prgx.migration.api.util.repository.GuestTombstoneRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
- * Service for Guest entity operations
+ * Service for Guest entity operations.
+ * Every public method is timed as {@code guests.service}, tagged with its method name and exception.
  */
 @Service
+@Timed(value = "guests.service", description = "Guest service method latency")
 @RequiredArgsConstructor
 public class GuestService {
 
     private static final Logger logger = LoggerFactory.getLogger(GuestService.class);
 
+    /**
+     * Rows read per export query
+     */
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
+    /**
+     * Rows written per flush in batch imports; matches hibernate.jdbc.batch_size
+     */
+    private static final int BATCH_FLUSH_EVERY = 50;
+
+    /**
+     * Upper bound for the size of IN lists
+     */
+    private static final int ID_CHUNK_SIZE = 1000;
+
     private final GuestRepository guestRepository;
+    private final GuestTombstoneRepository guestTombstoneRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final GuestCountCache guestCountCache;
+    private final GuestSearchIndex guestSearchIndex;
+    private final GuestStatsCache guestStatsCache;
+    private final GuestMetrics guestMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+
+    @Value("${app.guests.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.guests.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${app.guests.batch.max-size:10000}")
+    private int maxBatchSize;
+
+    @Value("${app.guests.search.default-limit:20}")
+    private int defaultSearchLimit;
+
+    @Value("${app.guests.search.max-limit:100}")
+    private int maxSearchLimit;
 
+    @Value("${app.guests.stats.default-days:30}")
+    private int defaultStatsDays;
+
+    @Value("${app.guests.stats.max-days:366}")
+    private int maxStatsDays;
+
+    @Value("${app.guests.sync.default-limit:200}")
+    private int defaultSyncLimit;
+
+    @Value("${app.guests.sync.max-limit:500}")
+    private int maxSyncLimit;
+
+    @Value("${app.guests.sync.overlap:10s}")
+    private Duration syncOverlap;
+
+    @Value("${app.guests.sync.tombstone-retention:30d}")
+    private Duration tombstoneRetention;
+
+    /**
+     * Get one keyset page of guests for a user, ordered by id.
+     * The cost of a page does not depend on how deep the cursor is.
+     */
     @Transactional(readOnly = true)
-    public List<GuestResponse> getAllGuestsByUserId(Long userId) {
-        logger.debug("Fetching all guests for user: {}", userId);
-        return guestRepository.findByUserId(userId)
-                .stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    public GuestPageResponse getGuestPage(Long userId, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        long afterId = decodeCursor(cursor);
+        logger.debug("Fetching guest page for user: {} after id: {} size: {}", userId, afterId, pageSize);
+
+        // Fetch one extra row to find out whether another page follows
+        List<GuestResponse> guests = guestRepository.findPageByUserIdAfterId(
+                userId, afterId, PageRequest.ofSize(pageSize + 1));
+
+        boolean hasMore = guests.size() > pageSize;
+        List<GuestResponse> items = hasMore ? guests.subList(0, pageSize) : guests;
+        guestMetrics.recordResultSize("page", items.size());
+
+        return GuestPageResponse.builder()
+                .items(items)
+                .size(items.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? encodeCursor(items.get(items.size() - 1).getId()) : null)
+                .build();
+    }
+
+    /**
+     * Guests created, updated or deleted since a sync cursor, merged in (change time, id) order.
+     * Both the guest and the tombstone query are keyset reads on (user_id, change time, id), so a
+     * reconnect costs in proportion to what changed rather than to the size of the list.
+     * <p>
+     * The cursor for the next sync is placed {@code overlap} before the time of this read: changes
+     * whose transaction was still open, and therefore invisible, are picked up next time at the
+     * price of resending recent changes. Upserts and deletions are idempotent on the client.
+     */
+    @Transactional(readOnly = true)
+    public GuestSyncResponse getGuestChanges(Long userId, String since, Integer limit) {
+        int pageLimit = limit != null ? limit : defaultSyncLimit;
+        if (pageLimit < 1 || pageLimit > maxSyncLimit) {
+            throw new ValidationException("Limit must be between 1 and " + maxSyncLimit);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        SyncCursor cursor = SyncCursor.decode(since);
+        logger.debug("Fetching guest changes for user: {} since: {} limit: {}", userId, cursor, pageLimit);
+        if (cursor != null && cursor.changedAt().isBefore(now.minus(tombstoneRetention))) {
+            return GuestSyncResponse.builder()
+                    .upserts(List.of())
+                    .deletions(List.of())
+                    .fullResyncRequired(true)
+                    .build();
+        }
+
+        SyncCursor from = cursor != null ? cursor : SyncCursor.START;
+        // One extra row from each side tells whether another page follows
+        PageRequest page = PageRequest.ofSize(pageLimit + 1);
+        List<GuestResponse> changed = guestRepository.findChangedAfter(userId, from.changedAt(), from.id(), page);
+        // A client without a cursor holds no guests, so there is nothing for it to delete
+        List<GuestSyncResponse.Deletion> deleted = cursor != null
+                ? guestTombstoneRepository.findDeletedAfter(userId, from.changedAt(), from.id(), page)
+                : List.of();
+
+        List<GuestResponse> upserts = new ArrayList<>();
+        List<GuestSyncResponse.Deletion> deletions = new ArrayList<>();
+        LocalDateTime lastChangedAt = from.changedAt();
+        long lastId = from.id();
+        int u = 0;
+        int d = 0;
+        while (u + d < pageLimit && (u < changed.size() || d < deleted.size())) {
+            GuestResponse guest = u < changed.size() ? changed.get(u) : null;
+            GuestSyncResponse.Deletion deletion = d < deleted.size() ? deleted.get(d) : null;
+            if (deletion == null || (guest != null && compareChanges(guest.getUpdatedAt(), guest.getId(),
+                    deletion.getDeletedAt(), deletion.getId()) < 0)) {
+                upserts.add(guest);
+                lastChangedAt = guest.getUpdatedAt();
+                lastId = guest.getId();
+                u++;
+            } else {
+                deletions.add(deletion);
+                lastChangedAt = deletion.getDeletedAt();
+                lastId = deletion.getId();
+                d++;
+            }
+        }
+
+        boolean hasMore = u < changed.size() || d < deleted.size();
+        guestMetrics.recordResultSize("changes", u + d);
+        // The overlap is measured from the first page of a paged sync, which the cursor carries along
+        LocalDateTime floor = now.minus(syncOverlap);
+        if (from.floor() != null && from.floor().isBefore(floor)) {
+            floor = from.floor();
+        }
+        SyncCursor next = hasMore
+                ? new SyncCursor(lastChangedAt, lastId, floor)
+                : new SyncCursor(floor, 0L, null);
+        return GuestSyncResponse.builder()
+                .upserts(upserts)
+                .deletions(deletions)
+                .hasMore(hasMore)
+                .nextSince(next.encode())
+                .build();
+    }
+
+    /**
+     * Search a user's guests by name, email and phone prefixes through {@link GuestSearchIndex}.
+     * Only the first search of a user (or the first after expiry) reads the database.
+     */
+    public GuestSearchResponse searchGuests(Long userId, String query, Integer limit, Integer offset) {
+        if (query == null || query.isBlank()) {
+            throw new ValidationException("Search query must not be blank");
+        }
+        int pageLimit = limit != null ? limit : defaultSearchLimit;
+        if (pageLimit < 1 || pageLimit > maxSearchLimit) {
+            throw new ValidationException("Limit must be between 1 and " + maxSearchLimit);
+        }
+        int skip = offset != null ? offset : 0;
+        if (skip < 0) {
+            throw new ValidationException("Offset must not be negative");
+        }
+        logger.debug("Searching guests for user: {} query: {} limit: {} offset: {}", userId, query, pageLimit, skip);
+
+        // One extra result tells whether another page follows
+        List<GuestResponse> matches = guestSearchIndex.get(userId)
+                .search(GuestTokenIndex.parseQuery(query), skip, pageLimit + 1);
+        boolean hasMore = matches.size() > pageLimit;
+        List<GuestResponse> items = hasMore ? matches.subList(0, pageLimit) : matches;
+        guestMetrics.recordResultSize("search", items.size());
+        return GuestSearchResponse.builder()
+                .query(query)
+                .items(items)
+                .offset(skip)
+                .limit(pageLimit)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Write every guest of a user to {@code out} as newline-delimited JSON.
+     * Rows are read in keyset chunks, each in its own short query, so a slow download holds a
+     * pooled connection only while a chunk is fetched rather than for the whole transfer. The
+     * export is therefore not a snapshot: rows written while it runs may or may not be included.
+     */
+    public long exportGuests(Long userId, OutputStream out) throws IOException {
+        logger.debug("Exporting guests for user: {}", userId);
+        ObjectWriter writer = objectMapper.writerFor(GuestResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        long written = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            long afterId = 0;
+            List<GuestResponse> chunk;
+            do {
+                chunk = guestRepository.findPageByUserIdAfterId(userId, afterId, PageRequest.ofSize(EXPORT_CHUNK_SIZE));
+                for (GuestResponse guest : chunk) {
+                    writer.writeValue(generator, guest);
+                    generator.writeRaw('\n');
+                }
+                written += chunk.size();
+                // Flushing per chunk keeps the client receiving while the next chunk is read
+                generator.flush();
+                if (!chunk.isEmpty()) {
+                    afterId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == EXPORT_CHUNK_SIZE);
+        }
+        logger.info("Exported {} guests for user: {}", written, userId);
+        guestMetrics.recordResultSize("export", written);
+        return written;
     }
 
     @Transactional(readOnly = true)
     public GuestResponse getGuestById(Long id, Long userId) {
         logger.debug("Fetching guest with id: {} for user: {}", id, userId);
-        Guest guest = guestRepository.findByIdAndUserId(id, userId)
+        return guestRepository.findResponseByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Guest", "id", id));
+    }
+
+    /**
+     * Entity tag of one guest, read with a single-column query instead of loading the entity
+     */
+    @Transactional(readOnly = true)
+    public String getGuestETag(Long id, Long userId) {
+        return guestRepository.findVersionByIdAndUserId(id, userId)
+                .map(version -> GuestETags.forGuest(id, version))
                 .orElseThrow(() -> new ResourceNotFoundException("Guest", "id", id));
-        return convertToResponse(guest);
+    }
+
+    /**
+     * Entity tag shared by all pages of a user's guest list, from one aggregate query over the
+     * user's guests; a matching If-None-Match skips reading and serializing the page.
+     */
+    @Transactional(readOnly = true)
+    public String getGuestListETag(Long userId) {
+        return GuestETags.forCollection(guestRepository.findListVersionByUserId(userId));
     }
 
     @Transactional
     public GuestResponse createGuest(GuestRequest request, Long userId) {
         logger.debug("Creating new guest for user: {}", userId);
 
-        Guest guest = Guest.builder()
-                .name(request.getName())
-                .email(request.getEmail())
-                .phone(request.getPhone())
-                .numOfGuests(request.getNumOfGuests() != null ? request.getNumOfGuests() : 1)
-                .userId(userId)
-                .build();
-
-        Guest savedGuest = guestRepository.save(guest);
+        // Flush so the generated timestamps are part of the response; sequence ids no longer force an immediate insert
+        Guest savedGuest = guestRepository.saveAndFlush(newGuest(request, userId));
         logger.info("Guest created successfully with id: {}", savedGuest.getId());
-        return convertToResponse(savedGuest);
+        GuestResponse response = convertToResponse(savedGuest);
+        eventPublisher.publishEvent(GuestChangedEvent.created(response));
+        return response;
     }
 
+    /**
+     * Replace all fields of a guest
+     *
+     * @param expectedVersions versions accepted by If-Match, or {@code null} for an unconditional update
+     */
     @Transactional
-    public GuestResponse updateGuest(Long id, GuestRequest request, Long userId) {
+    public GuestResponse updateGuest(Long id, GuestRequest request, Long userId, Collection<Long> expectedVersions) {
         logger.debug("Updating guest with id: {} for user: {}", id, userId);
 
-        Guest guest = guestRepository.findByIdAndUserId(id, userId)
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("name", request.getName());
+        changes.put("email", request.getEmail());
+        changes.put("phone", request.getPhone());
+        changes.put("numOfGuests", numOfGuests(request));
+        return applyChanges(id, userId, changes, expectedVersions);
+    }
+
+    /**
+     * Change only the fields present in the request
+     *
+     * @param expectedVersions versions accepted by If-Match, or {@code null} for an unconditional update
+     */
+    @Transactional
+    public GuestResponse patchGuest(Long id, GuestPatchRequest request, Long userId,
+                                    Collection<Long> expectedVersions) {
+        logger.debug("Patching guest with id: {} for user: {}", id, userId);
+
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (request.getName() != null) {
+            changes.put("name", request.getName().orElse(null));
+        }
+        if (request.getEmail() != null) {
+            changes.put("email", request.getEmail().orElse(null));
+        }
+        if (request.getPhone() != null) {
+            changes.put("phone", request.getPhone().orElse(null));
+        }
+        if (request.getNumOfGuests() != null) {
+            changes.put("numOfGuests", request.getNumOfGuests().orElse(1));
+        }
+        if (changes.isEmpty()) {
+            throw new ValidationException("A patch must change at least one field");
+        }
+        return applyChanges(id, userId, changes, expectedVersions);
+    }
+
+    /**
+     * One conditional UPDATE on (id, user_id[, version]) that sets only {@code changes} and bumps the
+     * version; no row means 404 or 412. The response is read back as a projection, since creation
+     * time and untouched fields are not part of the request.
+     */
+    private GuestResponse applyChanges(Long id, Long userId, Map<String, Object> changes,
+                                       Collection<Long> expectedVersions) {
+        boolean updated = (expectedVersions == null || !expectedVersions.isEmpty())
+                && guestRepository.updateFields(id, userId, changes,
+                LocalDateTime.now().truncatedTo(ChronoUnit.MICROS), expectedVersions) > 0;
+        if (!updated) {
+            throw writeFailure(id, userId, expectedVersions);
+        }
+        GuestResponse response = guestRepository.findResponseByIdAndUserId(id, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Guest", "id", id));
+        logger.info("Guest updated successfully with id: {}", id);
+        eventPublisher.publishEvent(GuestChangedEvent.updated(response));
+        return response;
+    }
+
+    /**
+     * Delete a guest with a single conditional DELETE on (id, user_id[, version]); no row means 404 or 412
+     *
+     * @param expectedVersions versions accepted by If-Match, or {@code null} for an unconditional delete
+     */
+    @Transactional
+    public void deleteGuest(Long id, Long userId, Collection<Long> expectedVersions) {
+        logger.debug("Deleting guest with id: {} for user: {}", id, userId);
+
+        boolean deleted;
+        if (expectedVersions == null) {
+            deleted = guestRepository.deleteByIdAndUserId(id, userId) > 0;
+        } else {
+            deleted = !expectedVersions.isEmpty()
+                    && guestRepository.deleteByIdAndUserIdAndVersionIn(id, userId, expectedVersions) > 0;
+        }
+        if (!deleted) {
+            throw writeFailure(id, userId, expectedVersions);
+        }
+        entityManager.persist(tombstone(id, userId, LocalDateTime.now()));
+        logger.info("Guest deleted successfully with id: {}", id);
+        eventPublisher.publishEvent(GuestChangedEvent.deleted(userId, id));
+    }
+
+    /**
+     * Tells a missing guest (404) from a conditional write whose If-Match no longer matches (412)
+     */
+    private RuntimeException writeFailure(Long id, Long userId, Collection<Long> expectedVersions) {
+        if (expectedVersions != null && guestRepository.existsByIdAndUserId(id, userId)) {
+            return new PreconditionFailedException("Guest " + id + " has been modified; fetch it again and retry");
+        }
+        return new ResourceNotFoundException("Guest", "id", id);
+    }
+
+    /**
+     * Apply a batch of create/update/delete operations in a single transaction.
+     * Every operation is validated on its own and gets its own result; invalid or unknown items
+     * are reported and skipped while the rest are written with JDBC batching.
+     */
+    @Transactional
+    public GuestBatchResponse processBatch(List<GuestBatchRequest.Operation> operations, Long userId) {
+        if (operations.size() > maxBatchSize) {
+            throw new ValidationException("A batch may contain at most " + maxBatchSize + " operations");
+        }
+        logger.debug("Processing batch of {} operations for user: {}", operations.size(), userId);
+
+        GuestBatchResponse.ItemResult[] results = new GuestBatchResponse.ItemResult[operations.size()];
+        Map<Long, Guest> ownedGuests = loadOwnedGuests(operations, userId);
+        List<Integer> creates = new ArrayList<>();
+        Map<Integer, Guest> updates = new HashMap<>();
+        List<Long> deletes = new ArrayList<>();
+        List<GuestChangedEvent> changes = new ArrayList<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            GuestBatchRequest.Operation operation = operations.get(i);
+            String error = validateOperation(operation);
+            if (error != null) {
+                results[i] = itemResult(i, operation, 400, operation != null ? operation.getId() : null, error);
+                continue;
+            }
+            switch (operation.getOp()) {
+                case CREATE -> creates.add(i);
+                case UPDATE -> {
+                    Guest guest = ownedGuests.get(operation.getId());
+                    if (guest == null) {
+                        results[i] = itemResult(i, operation, 404, operation.getId(), "Guest not found");
+                    } else {
+                        applyRequest(guest, operation.getGuest());
+                        updates.put(i, guest);
+                    }
+                }
+                case DELETE -> {
+                    // Removing it makes later operations on the same id in this batch report 404
+                    Guest guest = ownedGuests.remove(operation.getId());
+                    if (guest == null) {
+                        results[i] = itemResult(i, operation, 404, operation.getId(), "Guest not found");
+                    } else {
+                        deletes.add(guest.getId());
+                        results[i] = itemResult(i, operation, 200, guest.getId(), null);
+                    }
+                }
+            }
+        }
 
+        // Dirty entities are flushed as batched UPDATEs
+        entityManager.flush();
+        updates.forEach((index, guest) -> {
+            GuestResponse response = convertToResponse(guest);
+            results[index] = itemResult(index, operations.get(index), 200, guest.getId(), null);
+            changes.add(GuestChangedEvent.updated(response));
+        });
+
+        LocalDateTime deletedAt = LocalDateTime.now();
+        for (int from = 0; from < deletes.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = deletes.subList(from, Math.min(from + ID_CHUNK_SIZE, deletes.size()));
+            guestRepository.deleteByUserIdAndIdIn(userId, chunk);
+            // Tombstones have assigned ids, so persist() inserts them (batched) without a select
+            for (Long id : chunk) {
+                entityManager.persist(tombstone(id, userId, deletedAt));
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+        deletes.forEach(id -> changes.add(GuestChangedEvent.deleted(userId, id)));
+        entityManager.clear();
+
+        // Inserts are flushed and detached every BATCH_FLUSH_EVERY rows to keep the persistence context small
+        for (int from = 0; from < creates.size(); from += BATCH_FLUSH_EVERY) {
+            List<Integer> chunk = creates.subList(from, Math.min(from + BATCH_FLUSH_EVERY, creates.size()));
+            List<Guest> guests = chunk.stream()
+                    .map(index -> newGuest(operations.get(index).getGuest(), userId))
+                    .collect(Collectors.toList());
+            guestRepository.saveAll(guests);
+            entityManager.flush();
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = chunk.get(i);
+                GuestResponse response = convertToResponse(guests.get(i));
+                results[index] = itemResult(index, operations.get(index), 201, response.getId(), null);
+                changes.add(GuestChangedEvent.created(response));
+            }
+            entityManager.clear();
+        }
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new GuestBatchChangedEvent(userId, changes));
+        }
+
+        int failed = operations.size() - creates.size() - updates.size() - deletes.size();
+        guestMetrics.recordResultSize("batch", operations.size());
+        logger.info("Batch processed for user: {} - created: {}, updated: {}, deleted: {}, failed: {}",
+                userId, creates.size(), updates.size(), deletes.size(), failed);
+        return GuestBatchResponse.builder()
+                .created(creates.size())
+                .updated(updates.size())
+                .deleted(deletes.size())
+                .failed(failed)
+                .results(List.of(results))
+                .build();
+    }
+
+    /**
+     * Served from {@link GuestCountCache}; only a miss runs the count query.
+     * Deliberately not transactional so a cache hit does not borrow a connection.
+     */
+    public long getGuestCount(Long userId) {
+        return guestCountCache.get(userId, guestRepository::countByUserId);
+    }
+
+    /**
+     * Totals and a created-per-day histogram for the last {@code days} days (today included).
+     * Built from per-day aggregates held in {@link GuestStatsCache}; only a miss runs the
+     * aggregate query, so like {@link #getGuestCount} this is deliberately not transactional.
+     */
+    public GuestStatsResponse getGuestStats(Long userId, Integer days) {
+        int window = days != null ? days : defaultStatsDays;
+        if (window < 1 || window > maxStatsDays) {
+            throw new ValidationException("Days must be between 1 and " + maxStatsDays);
+        }
+        List<DailyGuestStats> daily = guestStatsCache.get(userId, guestRepository::findDailyStatsByUserId);
+
+        LocalDate firstDay = LocalDate.now().minusDays(window - 1L);
+        long guests = 0;
+        long headcount = 0;
+        long withEmail = 0;
+        List<GuestStatsResponse.DailyCount> createdPerDay = new ArrayList<>();
+        for (DailyGuestStats day : daily) {
+            guests += day.guests();
+            headcount += day.headcount();
+            withEmail += day.withEmail();
+            if (!day.day().isBefore(firstDay)) {
+                createdPerDay.add(GuestStatsResponse.DailyCount.builder()
+                        .date(day.day())
+                        .guests(day.guests())
+                        .headcount(day.headcount())
+                        .build());
+            }
+        }
+        return GuestStatsResponse.builder()
+                .guests(guests)
+                .headcount(headcount)
+                .withEmail(withEmail)
+                .withoutEmail(guests - withEmail)
+                .days(window)
+                .createdPerDay(createdPerDay)
+                .build();
+    }
+
+    private Map<Long, Guest> loadOwnedGuests(List<GuestBatchRequest.Operation> operations, Long userId) {
+        List<Long> ids = operations.stream()
+                .filter(operation -> operation != null && operation.getOp() != null
+                        && operation.getOp() != GuestBatchRequest.OperationType.CREATE)
+                .map(GuestBatchRequest.Operation::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+
+        Map<Long, Guest> guests = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            guestRepository.findByUserIdAndIdIn(userId, ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size())))
+                    .forEach(guest -> guests.put(guest.getId(), guest));
+        }
+        return guests;
+    }
+
+    private String validateOperation(GuestBatchRequest.Operation operation) {
+        if (operation == null || operation.getOp() == null) {
+            return "Operation type is required";
+        }
+        if (operation.getOp() != GuestBatchRequest.OperationType.CREATE && operation.getId() == null) {
+            return "Guest id is required";
+        }
+        if (operation.getOp() == GuestBatchRequest.OperationType.DELETE) {
+            return null;
+        }
+        if (operation.getGuest() == null) {
+            return "Guest is required";
+        }
+        String violations = validator.validate(operation.getGuest()).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        return violations.isEmpty() ? null : violations;
+    }
+
+    private static GuestBatchResponse.ItemResult itemResult(int index, GuestBatchRequest.Operation operation,
+                                                            int status, Long id, String error) {
+        return GuestBatchResponse.ItemResult.builder()
+                .index(index)
+                .op(operation != null ? operation.getOp() : null)
+                .status(status)
+                .id(id)
+                .error(error)
+                .build();
+    }
+
+    private static Guest newGuest(GuestRequest request, Long userId) {
+        return Guest.builder()
+                .name(request.getName())
+                .email(request.getEmail())
+                .phone(request.getPhone())
+                .numOfGuests(numOfGuests(request))
+                .userId(userId)
+                .build();
+    }
+
+    private static GuestTombstone tombstone(Long guestId, Long userId, LocalDateTime deletedAt) {
+        return GuestTombstone.builder()
+                .guestId(guestId)
+                .userId(userId)
+                // Stored as TIMESTAMP(6); truncating keeps the value a cursor carries equal to the stored one
+                .deletedAt(deletedAt.truncatedTo(ChronoUnit.MICROS))
+                .build();
+    }
+
+    private static void applyRequest(Guest guest, GuestRequest request) {
         guest.setName(request.getName());
         guest.setEmail(request.getEmail());
         guest.setPhone(request.getPhone());
-        guest.setNumOfGuests(request.getNumOfGuests() != null ? request.getNumOfGuests() : 1);
+        guest.setNumOfGuests(numOfGuests(request));
+    }
 
-        Guest updatedGuest = guestRepository.save(guest);
-        logger.info("Guest updated successfully with id: {}", updatedGuest.getId());
-        return convertToResponse(updatedGuest);
+    private static Integer numOfGuests(GuestRequest request) {
+        return request.getNumOfGuests() != null ? request.getNumOfGuests() : 1;
     }
 
-    @Transactional
-    public void deleteGuest(Long id, Long userId) {
-        logger.debug("Deleting guest with id: {} for user: {}", id, userId);
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new ValidationException("Page size must be between 1 and " + maxPageSize);
+        }
+        return size;
+    }
 
-        Guest guest = guestRepository.findByIdAndUserId(id, userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Guest", "id", id));
+    private static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
 
-        guestRepository.delete(guest);
-        logger.info("Guest deleted successfully with id: {}", id);
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            long lastId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (lastId < 0) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return lastId;
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("Invalid cursor");
+        }
     }
 
-    @Transactional(readOnly = true)
-    public long getGuestCount(Long userId) {
-        return guestRepository.countByUserId(userId);
+    private static int compareChanges(LocalDateTime changedAt, long id, LocalDateTime otherChangedAt, long otherId) {
+        int byTime = changedAt.compareTo(otherChangedAt);
+        return byTime != 0 ? byTime : Long.compare(id, otherId);
+    }
+
+    /**
+     * Position in a user's (change time, id) ordered changes. {@code floor} is only set while
+     * paging and carries the overlap point of the first page.
+     */
+    private record SyncCursor(LocalDateTime changedAt, long id, LocalDateTime floor) {
+
+        static final SyncCursor START = new SyncCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L, null);
+
+        /**
+         * Accepts a cursor from a previous response or a plain ISO-8601 local date-time
+         *
+         * @return the cursor, or null when there is none
+         */
+        static SyncCursor decode(String since) {
+            if (since == null || since.isBlank()) {
+                return null;
+            }
+            try {
+                if (since.indexOf(':') >= 0) {
+                    return new SyncCursor(LocalDateTime.parse(since), 0L, null);
+                }
+                String[] parts = new String(Base64.getUrlDecoder().decode(since), StandardCharsets.UTF_8).split("\\.");
+                if (parts.length < 2 || parts.length > 3) {
+                    throw new ValidationException("Invalid since cursor");
+                }
+                return new SyncCursor(fromMicros(Long.parseLong(parts[0])), Long.parseLong(parts[1]),
+                        parts.length == 3 ? fromMicros(Long.parseLong(parts[2])) : null);
+            } catch (IllegalArgumentException | DateTimeException ex) {
+                throw new ValidationException("Invalid since cursor");
+            }
+        }
+
+        String encode() {
+            String value = toMicros(changedAt) + "." + id + (floor != null ? "." + toMicros(floor) : "");
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static long toMicros(LocalDateTime time) {
+            return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+        }
+
+        private static LocalDateTime fromMicros(long micros) {
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                    (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+        }
     }
 
+    /**
+     * Field copy from an entity already in memory; read paths select {@link GuestResponse} projections instead
+     */
     private GuestResponse convertToResponse(Guest guest) {
         return GuestResponse.builder()
                 .id(guest.getId())
@@ -103,6 +759,7 @@ public class GuestService {
                 .userId(guest.getUserId())
                 .createdAt(guest.getCreatedAt())
                 .updatedAt(guest.getUpdatedAt())
+                .version(guest.getVersion())
                 .build();
     }
 }
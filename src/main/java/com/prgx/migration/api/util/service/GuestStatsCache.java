@@ -0,0 +1,53 @@
+package com.prgx.migration.api.util.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.prgx.migration.api.util.event.GuestBatchChangedEvent;
+import com.prgx.migration.api.util.event.GuestChangedEvent;
+import com.prgx.migration.api.util.repository.DailyGuestStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of per-day guest aggregates per user. Any committed guest change drops the
+ * user's entry, since updates can change headcounts and email coverage as well.
+ */
+@Component
+public class GuestStatsCache {
+
+    public static final String CACHE_NAME = "guests.stats";
+
+    private final Cache<Long, List<DailyGuestStats>> stats;
+
+    public GuestStatsCache(@Value("${app.guests.stats-cache.max-size:10000}") long maxSize,
+                           @Value("${app.guests.stats-cache.expire-after-write:10m}") Duration expireAfterWrite,
+                           MeterRegistry meterRegistry) {
+        this.stats = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, stats, CACHE_NAME);
+    }
+
+    public List<DailyGuestStats> get(Long userId, Function<Long, List<DailyGuestStats>> loader) {
+        return stats.get(userId, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGuestChanged(GuestChangedEvent event) {
+        stats.invalidate(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGuestBatchChanged(GuestBatchChangedEvent event) {
+        stats.invalidate(event.userId());
+    }
+}
@@ -0,0 +1,479 @@
+package com.prgx.migration.api.util.service;
+
+import com.prgx.migration.api.util.dto.response.GuestResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over the guests of one user. Tokens are the words of the name and of the email
+ * local part, the email domain as a whole and word by word, and the phone digits from each digit
+ * group onwards; every query term matches tokens by prefix and all terms must match.
+ * Results are in id order.
+ * <p>
+ * Besides full tokens, the index keeps postings for every token prefix of up to
+ * {@value #PREFIX_LENGTH} characters, so short and broad terms are a single lookup instead of a
+ * merge over thousands of tokens. Safe for concurrent use: searches share a read lock,
+ * updates take the write lock.
+ */
+public final class GuestTokenIndex {
+
+    static final int PREFIX_LENGTH = 3;
+
+    /**
+     * Longer terms matching more tokens than this are served from their prefix postings and verified
+     */
+    private static final int MAX_MERGED_POSTINGS = 4096;
+
+    /**
+     * Candidate sets up to this many are merged with a heap, larger unions are sorted
+     */
+    private static final int MAX_LAZY_MERGE = 64;
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern NON_DIGIT = Pattern.compile("\\D+");
+    private static final Pattern PHONE = Pattern.compile("[+\\d()\\s.\\-]*\\d[+\\d()\\s.\\-]*");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> guests = new HashMap<>();
+    private final NavigableMap<String, IdSet> postings = new TreeMap<>();
+    private final Map<String, IdSet> prefixPostings = new HashMap<>();
+
+    private record Entry(GuestResponse guest, String email, String[] tokens) {
+    }
+
+    public void put(GuestResponse guest) {
+        String[] tokens = tokenize(guest);
+        String email = guest.getEmail() != null ? guest.getEmail().trim().toLowerCase(Locale.ROOT) : null;
+        lock.writeLock().lock();
+        try {
+            Entry previous = guests.put(guest.getId(), new Entry(guest, email, tokens));
+            if (previous != null) {
+                unindex(guest.getId(), previous.tokens());
+            }
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, key -> new IdSet()).add(guest.getId());
+            }
+            for (String prefix : prefixes(tokens)) {
+                prefixPostings.computeIfAbsent(prefix, key -> new IdSet()).add(guest.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = guests.remove(id);
+            if (previous != null) {
+                unindex(id, previous.tokens());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return guests.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param terms normalized terms from {@link #parseQuery(String)}
+     * @return up to {@code limit} guests matching every term, skipping the first {@code offset}
+     */
+    public List<GuestResponse> search(List<String> terms, int offset, int limit) {
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Candidates> perTerm = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Candidates candidates = candidatesFor(term);
+                if (candidates.count() == 0) {
+                    return List.of();
+                }
+                perTerm.add(candidates);
+            }
+
+            // Walk the ids of the smallest candidate set in order; terms backed by a single posting
+            // are checked by binary search before the guest is looked up, all terms after
+            perTerm.sort(Comparator.comparingLong(Candidates::count));
+            IdCursor ids = perTerm.get(0).cursor();
+            List<IdSet> filters = perTerm.subList(1, perTerm.size()).stream()
+                    .filter(candidates -> candidates.exact() && candidates.sets().size() == 1)
+                    .map(candidates -> candidates.sets().get(0))
+                    .toList();
+
+            List<GuestResponse> results = new ArrayList<>(Math.min(limit, 64));
+            int skipped = 0;
+            while (results.size() < limit && ids.hasNext()) {
+                long id = ids.next();
+                if (!containedInAll(filters, id)) {
+                    continue;
+                }
+                Entry entry = guests.get(id);
+                if (!matchesAll(entry, terms)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    results.add(entry.guest());
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Split a query into lower-case terms. Terms containing {@code @} are matched against the whole
+     * email address; a phone-like query or term is reduced to its digits.
+     */
+    public static List<String> parseQuery(String query) {
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        if (PHONE.matcher(normalized).matches()) {
+            return List.of(digits(normalized));
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        for (String raw : normalized.split("\\s+")) {
+            if (raw.isEmpty()) {
+                continue;
+            }
+            int at = raw.indexOf('@');
+            if (at >= 0) {
+                // The local-part words narrow the candidates, the whole term is matched against the address
+                addWords(terms, raw.substring(0, at));
+                terms.add(raw);
+            } else if (PHONE.matcher(raw).matches()) {
+                terms.add(digits(raw));
+            } else {
+                addWords(terms, raw);
+            }
+        }
+        return List.copyOf(terms);
+    }
+
+    static String[] tokenize(GuestResponse guest) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (guest.getName() != null) {
+            addWords(tokens, guest.getName().toLowerCase(Locale.ROOT));
+        }
+        if (guest.getEmail() != null && !guest.getEmail().isBlank()) {
+            String email = guest.getEmail().trim().toLowerCase(Locale.ROOT);
+            int at = email.indexOf('@');
+            addWords(tokens, at >= 0 ? email.substring(0, at) : email);
+            if (at >= 0 && at < email.length() - 1) {
+                // The whole domain for "example.c", its words because queries are split into words
+                String domain = email.substring(at + 1);
+                tokens.add(domain);
+                addWords(tokens, domain);
+            }
+        }
+        if (guest.getPhone() != null) {
+            // Digits from each group onwards, so a number also matches without country or area code
+            String[] groups = NON_DIGIT.split(guest.getPhone());
+            StringBuilder suffix = new StringBuilder();
+            for (int i = groups.length - 1; i >= 0; i--) {
+                suffix.insert(0, groups[i]);
+                if (!groups[i].isEmpty()) {
+                    tokens.add(suffix.toString());
+                }
+            }
+        }
+        return tokens.toArray(String[]::new);
+    }
+
+    /**
+     * Id sets whose union contains every guest matching {@code term}. Not exact for email terms
+     * and for long terms with very many tokens; those are verified per guest anyway.
+     */
+    private Candidates candidatesFor(String term) {
+        boolean email = term.indexOf('@') >= 0;
+        String key = email ? firstWord(term) : term;
+        if (key == null) {
+            // No word to look up (e.g. a lone "@"): every guest is a candidate
+            return Candidates.of(new ArrayList<>(postings.values()), false);
+        }
+        if (key.length() <= PREFIX_LENGTH) {
+            return Candidates.of(listOf(prefixPostings.get(key)), !email);
+        }
+
+        List<IdSet> sets = new ArrayList<>();
+        for (IdSet ids : postings.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+            if (sets.size() == MAX_MERGED_POSTINGS) {
+                return Candidates.of(listOf(prefixPostings.get(key.substring(0, PREFIX_LENGTH))), false);
+            }
+            sets.add(ids);
+        }
+        return Candidates.of(sets, !email);
+    }
+
+    private static List<IdSet> listOf(IdSet ids) {
+        return ids != null ? List.of(ids) : List.of();
+    }
+
+    private void unindex(Long id, String[] tokens) {
+        for (String token : tokens) {
+            removeId(postings, token, id);
+        }
+        for (String prefix : prefixes(tokens)) {
+            removeId(prefixPostings, prefix, id);
+        }
+    }
+
+    private static void removeId(Map<String, IdSet> index, String key, Long id) {
+        IdSet ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.size() == 0) {
+            index.remove(key);
+        }
+    }
+
+    private static Set<String> prefixes(String[] tokens) {
+        Set<String> prefixes = new LinkedHashSet<>();
+        for (String token : tokens) {
+            for (int length = 1; length <= Math.min(PREFIX_LENGTH, token.length()); length++) {
+                prefixes.add(token.substring(0, length));
+            }
+        }
+        return prefixes;
+    }
+
+    private static boolean containedInAll(List<IdSet> sets, long id) {
+        for (IdSet ids : sets) {
+            if (!ids.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesAll(Entry entry, List<String> terms) {
+        for (String term : terms) {
+            if (!matches(entry, term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(Entry entry, String term) {
+        if (term.indexOf('@') >= 0) {
+            return entry.email() != null
+                    && (term.charAt(0) == '@' ? entry.email().contains(term) : entry.email().startsWith(term));
+        }
+        for (String token : entry.tokens()) {
+            if (token.startsWith(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String firstWord(String text) {
+        for (String word : NON_ALPHANUMERIC.split(text)) {
+            if (!word.isEmpty()) {
+                return word;
+            }
+        }
+        return null;
+    }
+
+    private static void addWords(Set<String> target, String text) {
+        for (String word : NON_ALPHANUMERIC.split(text)) {
+            if (!word.isEmpty()) {
+                target.add(word);
+            }
+        }
+    }
+
+    private static String digits(String text) {
+        StringBuilder digits = new StringBuilder(text.length());
+        text.chars().filter(Character::isDigit).forEach(c -> digits.append((char) c));
+        return digits.toString();
+    }
+
+    /**
+     * @param exact whether every id in the union matches the term
+     * @param count ids over all sets, counting duplicates
+     */
+    private record Candidates(List<IdSet> sets, boolean exact, long count) {
+
+        static Candidates of(List<IdSet> sets, boolean exact) {
+            long count = 0;
+            for (IdSet ids : sets) {
+                count += ids.size();
+            }
+            return new Candidates(sets, exact, count);
+        }
+
+        /**
+         * Ascending, distinct ids of all sets: walked in place for one set, merged lazily for a
+         * few, and sorted up front when there are too many for a heap merge to pay off
+         */
+        IdCursor cursor() {
+            if (sets.size() == 1) {
+                IdSet set = sets.get(0);
+                return new IdCursor() {
+                    private int position;
+
+                    @Override
+                    public boolean hasNext() {
+                        return position < set.size();
+                    }
+
+                    @Override
+                    public long next() {
+                        return set.get(position++);
+                    }
+                };
+            }
+            if (sets.size() <= MAX_LAZY_MERGE) {
+                return new IdMerger(sets);
+            }
+            long[] ids = new long[(int) count()];
+            int size = 0;
+            for (IdSet set : sets) {
+                System.arraycopy(set.ids, 0, ids, size, set.size);
+                size += set.size;
+            }
+            Arrays.sort(ids);
+            return new IdCursor() {
+                private int position;
+
+                @Override
+                public boolean hasNext() {
+                    while (position > 0 && position < ids.length && ids[position] == ids[position - 1]) {
+                        position++;
+                    }
+                    return position < ids.length;
+                }
+
+                @Override
+                public long next() {
+                    return ids[position++];
+                }
+            };
+        }
+    }
+
+    private interface IdCursor {
+
+        boolean hasNext();
+
+        long next();
+    }
+
+    /**
+     * Sorted set of guest ids backed by a {@code long[]}. New guests get increasing ids,
+     * so inserts are almost always appends.
+     */
+    private static final class IdSet {
+
+        private long[] ids = new long[1];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        long get(int index) {
+            return ids[index];
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+
+    /**
+     * Ascending, de-duplicated union of several id sets (k-way merge)
+     */
+    private static final class IdMerger implements IdCursor {
+
+        private final PriorityQueue<int[]> heads;
+        private final List<IdSet> sets;
+        private long last = Long.MIN_VALUE;
+        private long pending;
+        private boolean hasPending;
+
+        IdMerger(List<IdSet> sets) {
+            this.sets = sets;
+            // Each head is {set index, position in set}
+            this.heads = new PriorityQueue<>(Math.max(1, sets.size()),
+                    Comparator.comparingLong(head -> sets.get(head[0]).get(head[1])));
+            for (int i = 0; i < sets.size(); i++) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!hasPending && !heads.isEmpty()) {
+                int[] head = heads.poll();
+                IdSet set = sets.get(head[0]);
+                long id = set.get(head[1]);
+                if (++head[1] < set.size()) {
+                    heads.add(head);
+                }
+                if (id != last) {
+                    last = id;
+                    pending = id;
+                    hasPending = true;
+                }
+            }
+            return hasPending;
+        }
+
+        @Override
+        public long next() {
+            hasPending = false;
+            return pending;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.prgx.migration.api.util.service;
+
+import com.prgx.migration.api.util.repository.GuestTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Deletes guest tombstones older than the sync retention period. Sync cursors older than that
+ * period are answered with {@code fullResyncRequired}, so no client depends on them any more.
+ */
+@Component
+public class GuestTombstonePurger {
+
+    private static final Logger logger = LoggerFactory.getLogger(GuestTombstonePurger.class);
+
+    private final GuestTombstoneRepository guestTombstoneRepository;
+    private final Duration retention;
+
+    public GuestTombstonePurger(GuestTombstoneRepository guestTombstoneRepository,
+                                @Value("${app.guests.sync.tombstone-retention:30d}") Duration retention) {
+        this.guestTombstoneRepository = guestTombstoneRepository;
+        this.retention = retention;
+    }
+
+    @Scheduled(initialDelayString = "${app.guests.sync.purge-interval:PT1H}",
+            fixedDelayString = "${app.guests.sync.purge-interval:PT1H}")
+    @Transactional
+    public void purgeExpiredTombstones() {
+        int purged = guestTombstoneRepository.deleteByDeletedAtBefore(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            logger.info("Purged {} guest tombstones older than {}", purged, retention);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.prgx.migration.api.util.service;
 
 import com.prgx.migration.api.util.model.User;
+import com.prgx.migration.api.util.security.JwtPrincipal;
+import com.prgx.migration.api.util.security.RevokedTokens;
+import com.prgx.migration.api.util.security.TokenVerification;
+import com.prgx.migration.api.util.security.VerifiedTokenCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
@@ -20,14 +24,44 @@ public class JwtService {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RevokedTokens revokedTokens;
 
-    @Value("${app.jwt.expiration-ms}")
-    private long jwtExpirationMs;
+    private final long jwtExpirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    /**
+     * Key and parser derived from the current secret, swapped as one immutable value on rotation.
+     * The generation is stored with each cached verification, so a verification that started
+     * under a previous secret is never served once a rotation has completed.
+     */
+    private volatile SigningMaterial signingMaterial;
+
+    /**
+     * @throws io.jsonwebtoken.security.WeakKeyException if the secret is shorter than 32 bytes (256 bits)
+     */
+    public JwtService(VerifiedTokenCache verifiedTokenCache,
+                      RevokedTokens revokedTokens,
+                      @Value("${app.jwt.secret}") String jwtSecret,
+                      @Value("${app.jwt.expiration-ms}") long jwtExpirationMs) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.revokedTokens = revokedTokens;
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.signingMaterial = SigningMaterial.of(jwtSecret, 0L);
+        logger.info("JWT signing key initialized");
+    }
+
+    /**
+     * Replace the signing secret at runtime. Tokens signed with the previous secret stop
+     * verifying as soon as this returns, including ones whose verification is still in flight.
+     *
+     * @throws io.jsonwebtoken.security.WeakKeyException if the secret is shorter than 32 bytes (256 bits)
+     */
+    public synchronized void rotateSecret(String newSecret) {
+        SigningMaterial rotated = SigningMaterial.of(newSecret, signingMaterial.generation() + 1);
+        this.signingMaterial = rotated;
+        // Old-generation entries can no longer be served; dropping them just frees the space
+        verifiedTokenCache.invalidateAll();
+        logger.info("JWT signing key rotated (generation {})", rotated.generation());
     }
 
     /**
@@ -44,45 +78,75 @@ public class JwtService {
                 .claim("provider", user.getProvider().name())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingMaterial.key())
                 .compact();
     }
 
     /**
-     * Extract user ID from JWT token
+     * Verify a JWT once and return its principal, or the reason it was rejected.
+     * Never throws for missing or invalid tokens, so callers on the request path can
+     * reuse the returned claims instead of parsing the token again.
+     * Revoked tokens are rejected first; recently verified tokens are then served from
+     * {@link VerifiedTokenCache} without any cryptography.
      */
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return Long.parseLong(claims.getSubject());
+    public TokenVerification verifyToken(String token) {
+        if (token == null || token.isBlank()) {
+            return TokenVerification.failure(TokenVerification.Failure.MISSING);
+        }
+        if (revokedTokens.isRevoked(token)) {
+            return TokenVerification.failure(TokenVerification.Failure.REVOKED);
+        }
+        // Read once so the parse and the cache entry use the same key generation
+        SigningMaterial material = signingMaterial;
+        JwtPrincipal cached = verifiedTokenCache.get(token, material.generation());
+        if (cached != null) {
+            return TokenVerification.success(cached);
+        }
+        try {
+            Claims claims = material.parser()
+                    .parseSignedClaims(token)
+                    .getPayload();
+            JwtPrincipal principal = toPrincipal(claims);
+            verifiedTokenCache.put(token, material.generation(), principal);
+            return TokenVerification.success(principal);
+        } catch (ExpiredJwtException ex) {
+            return TokenVerification.failure(TokenVerification.Failure.EXPIRED);
+        } catch (io.jsonwebtoken.security.SecurityException ex) {
+            return TokenVerification.failure(TokenVerification.Failure.INVALID_SIGNATURE);
+        } catch (UnsupportedJwtException ex) {
+            return TokenVerification.failure(TokenVerification.Failure.UNSUPPORTED);
+        } catch (MalformedJwtException ex) {
+            return TokenVerification.failure(TokenVerification.Failure.MALFORMED);
+        } catch (JwtException | IllegalArgumentException ex) {
+            // IllegalArgumentException also covers a subject that is not a numeric user id
+            return TokenVerification.failure(TokenVerification.Failure.INVALID_CLAIMS);
+        }
     }
 
     /**
-     * Validate JWT token
+     * Revoke a token (logout), so it is rejected from now on although it has not expired.
+     * Tokens that do not verify are left alone.
+     *
+     * @return whether the token was valid and is now revoked
      */
-    public boolean validateToken(String authToken) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
-        } catch (SecurityException ex) {
-            logger.error("Invalid JWT signature");
-        } catch (MalformedJwtException ex) {
-            logger.error("Invalid JWT token");
-        } catch (ExpiredJwtException ex) {
-            logger.error("Expired JWT token");
-        } catch (UnsupportedJwtException ex) {
-            logger.error("Unsupported JWT token");
-        } catch (IllegalArgumentException ex) {
-            logger.error("JWT claims string is empty");
+    public boolean revokeToken(String token) {
+        TokenVerification verification = verifyToken(token);
+        if (!verification.isValid()) {
+            return false;
         }
-        return false;
+        revokedTokens.revoke(token, verification.principal().expiresAt());
+        // The deny-list is checked before the cache, so this only frees the entry
+        verifiedTokenCache.invalidate(token);
+        return true;
+    }
+
+    private JwtPrincipal toPrincipal(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return new JwtPrincipal(
+                Long.valueOf(claims.getSubject()),
+                claims.get("email", String.class),
+                claims.get("provider", String.class),
+                expiration != null ? expiration.toInstant() : null);
     }
 
     /**
@@ -91,5 +155,12 @@ public class JwtService {
     public long getExpirationMs() {
         return jwtExpirationMs;
     }
-}
 
+    private record SigningMaterial(SecretKey key, JwtParser parser, long generation) {
+
+        static SigningMaterial of(String secret, long generation) {
+            SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            return new SigningMaterial(key, Jwts.parser().verifyWith(key).build(), generation);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.prgx.migration.api.util.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.prgx.migration.api.util.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Cache of users by OAuth identity (provider, provider id), so repeated logins whose profile
+ * attributes have not changed skip the database entirely.
+ */
+@Component
+public class OAuthIdentityCache {
+
+    public static final String CACHE_NAME = "users.oauth-identity";
+
+    private final Cache<Identity, Snapshot> users;
+
+    public OAuthIdentityCache(@Value("${app.users.identity-cache.max-size:10000}") long maxSize,
+                              @Value("${app.users.identity-cache.expire-after-write:30m}") Duration expireAfterWrite,
+                              MeterRegistry meterRegistry) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, CACHE_NAME);
+    }
+
+    /**
+     * Get the cached user when the login would not change it, otherwise null.
+     * Mirrors the comparison in UserService: a null avatar never counts as a change.
+     */
+    public User getIfUnchanged(User.AuthProvider provider, String providerId,
+                               String email, String name, String avatarUrl) {
+        Snapshot snapshot = users.getIfPresent(new Identity(provider, providerId));
+        if (snapshot == null
+                || !Objects.equals(snapshot.email(), email)
+                || !Objects.equals(snapshot.name(), name)
+                || (avatarUrl != null && !avatarUrl.equals(snapshot.avatarUrl()))) {
+            return null;
+        }
+        return snapshot.toUser(provider, providerId);
+    }
+
+    /**
+     * Remember the persisted state of a user; call only after the transaction that wrote it has committed
+     */
+    public void put(User user) {
+        users.put(new Identity(user.getProvider(), user.getProviderId()), Snapshot.of(user));
+    }
+
+    private record Identity(User.AuthProvider provider, String providerId) {
+    }
+
+    /**
+     * Immutable copy, so callers never share a mutable entity through the cache
+     */
+    private record Snapshot(Long id, String email, String name, String avatarUrl,
+                            LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static Snapshot of(User user) {
+            return new Snapshot(user.getId(), user.getEmail(), user.getName(), user.getAvatarUrl(),
+                    user.getCreatedAt(), user.getUpdatedAt());
+        }
+
+        User toUser(User.AuthProvider provider, String providerId) {
+            return User.builder()
+                    .id(id)
+                    .email(email)
+                    .name(name)
+                    .provider(provider)
+                    .providerId(providerId)
+                    .avatarUrl(avatarUrl)
+                    .createdAt(createdAt)
+                    .updatedAt(updatedAt)
+                    .build();
+        }
+    }
+}
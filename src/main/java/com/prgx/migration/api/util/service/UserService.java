@@ -4,9 +4,14 @@ import com.prgx.migration.api.util.exception.ResourceNotFoundException;
 import com.prgx.migration.api.util.model.User;
 import com.prgx.migration.api.util.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service for User entity operations
@@ -15,7 +20,11 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class UserService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
     private final UserRepository userRepository;
+    private final OAuthIdentityCache oAuthIdentityCache;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional(readOnly = true)
     public User getUserById(Long id) {
@@ -29,7 +38,12 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
     }
 
-    @Transactional
+    /**
+     * Find or create the user for an OAuth login. Logins that would not change the stored user
+     * are answered from {@link OAuthIdentityCache} without opening a transaction. When two first
+     * logins of one identity race, the loser's insert fails on the (provider, provider_id) unique
+     * index (a constraint violation, or a lock conflict on H2) and it reads the winner's row instead.
+     */
     public User processOAuthUser(String registrationId, OAuth2User oAuth2User) {
         User.AuthProvider provider = User.AuthProvider.valueOf(registrationId.toUpperCase());
         String providerId = getProviderId(registrationId, oAuth2User);
@@ -37,9 +51,27 @@ public class UserService {
         String name = getName(registrationId, oAuth2User);
         String avatarUrl = getAvatarUrl(registrationId, oAuth2User);
 
-        return userRepository.findByProviderAndProviderId(provider, providerId)
+        User cached = oAuthIdentityCache.getIfUnchanged(provider, providerId, email, name, avatarUrl);
+        if (cached != null) {
+            return cached;
+        }
+
+        User user;
+        try {
+            user = findOrCreateUser(provider, providerId, email, name, avatarUrl);
+        } catch (DataIntegrityViolationException | ConcurrencyFailureException ex) {
+            logger.debug("Concurrent first login for {} user {}; reading the stored user", provider, providerId);
+            user = findOrCreateUser(provider, providerId, email, name, avatarUrl);
+        }
+        oAuthIdentityCache.put(user);
+        return user;
+    }
+
+    private User findOrCreateUser(User.AuthProvider provider, String providerId,
+                                  String email, String name, String avatarUrl) {
+        return transactionTemplate.execute(status -> userRepository.findByProviderAndProviderId(provider, providerId)
                 .map(existingUser -> updateExistingUser(existingUser, email, name, avatarUrl))
-                .orElseGet(() -> createNewUser(provider, providerId, email, name, avatarUrl));
+                .orElseGet(() -> createNewUser(provider, providerId, email, name, avatarUrl)));
     }
 
     @Transactional
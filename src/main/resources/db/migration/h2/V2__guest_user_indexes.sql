@@ -0,0 +1,3 @@
+-- Per-user access paths: listing and keyset pagination by id, ordering by creation time
+CREATE INDEX IF NOT EXISTS idx_guests_user_id_id ON guests (user_id, id);
+CREATE INDEX IF NOT EXISTS idx_guests_user_id_created_at ON guests (user_id, created_at);
@@ -0,0 +1,3 @@
+-- Guest ids move from IDENTITY to a pooled sequence so inserts can be JDBC-batched.
+-- Hibernate's pooled optimizer hands out (value - 49 .. value), so start one allocation past the current max id.
+CREATE SEQUENCE IF NOT EXISTS guests_seq START WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM guests) INCREMENT BY 50;
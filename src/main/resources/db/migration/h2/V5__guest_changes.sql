@@ -0,0 +1,15 @@
+-- Incremental sync reads a user's guests in (updated_at, id) order after a cursor.
+-- Rows written before @UpdateTimestamp populated inserts get their creation time.
+UPDATE guests SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE guests ALTER COLUMN updated_at SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_guests_user_id_updated_at ON guests (user_id, updated_at, id);
+
+-- Deleted guests are remembered for a retention period so sync clients can drop them too
+CREATE TABLE IF NOT EXISTS guest_tombstones (
+    guest_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (guest_id)
+);
+CREATE INDEX IF NOT EXISTS idx_guest_tombstones_user_id_deleted_at ON guest_tombstones (user_id, deleted_at, guest_id);
+CREATE INDEX IF NOT EXISTS idx_guest_tombstones_deleted_at ON guest_tombstones (deleted_at);
@@ -0,0 +1,2 @@
+-- Optimistic locking: every write bumps the version, and If-Match / PATCH compare against it
+ALTER TABLE guests ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
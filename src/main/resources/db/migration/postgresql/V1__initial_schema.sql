@@ -0,0 +1,24 @@
+-- Initial schema; mirrors db/migration/h2/V1 with PostgreSQL types
+CREATE TABLE IF NOT EXISTS users (
+    created_at TIMESTAMP(6) NOT NULL,
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    updated_at TIMESTAMP(6),
+    avatar_url VARCHAR(255),
+    email VARCHAR(255) NOT NULL UNIQUE,
+    name VARCHAR(255) NOT NULL,
+    provider_id VARCHAR(255) NOT NULL,
+    provider VARCHAR(255) NOT NULL CHECK (provider IN ('FACEBOOK', 'GITHUB', 'GOOGLE', 'MICROSOFT')),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS guests (
+    num_of_guests INTEGER,
+    created_at TIMESTAMP(6) NOT NULL,
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    updated_at TIMESTAMP(6),
+    user_id BIGINT NOT NULL,
+    email VARCHAR(255),
+    name VARCHAR(255) NOT NULL,
+    phone VARCHAR(255),
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,4 @@
+-- Guest ids come from a pooled sequence so inserts can be JDBC-batched.
+-- Hibernate's pooled optimizer hands out (value - 49 .. value), so start one allocation past the current max id.
+CREATE SEQUENCE IF NOT EXISTS guests_seq START WITH 50 INCREMENT BY 50;
+SELECT setval('guests_seq', COALESCE(MAX(id), 0) + 50, false) FROM guests;
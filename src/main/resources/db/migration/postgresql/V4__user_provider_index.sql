@@ -0,0 +1,2 @@
+-- OAuth logins look users up by (provider, provider_id); each provider identity maps to exactly one user
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_provider_provider_id ON users (provider, provider_id);
@@ -0,0 +1,76 @@
+package com.prgx.migration.api.util.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.prgx.migration.api.util.dto.request.GuestRequest;
+import com.prgx.migration.api.util.dto.response.ErrorResponse;
+import com.prgx.migration.api.util.exception.GlobalExceptionHandler;
+import com.prgx.migration.api.util.exception.ResourceNotFoundException;
+import com.prgx.migration.api.util.exception.ValidationException;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error paths through {@link GlobalExceptionHandler}: creating the exception (stack trace included,
+ * as when a service throws it) and building the error response. The handler's logger is switched
+ * off so the numbers do not depend on the configured appenders.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GlobalExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private MockHttpServletRequest request;
+    private MethodParameter createGuestParameter;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(GlobalExceptionHandler.class)).setLevel(Level.OFF);
+        handler = new GlobalExceptionHandler();
+        request = new MockHttpServletRequest("GET", "/api/guests/42");
+        createGuestParameter = new MethodParameter(
+                GlobalExceptionHandlerBenchmark.class.getDeclaredMethod("createGuest", GuestRequest.class), 0);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> resourceNotFound() {
+        return handler.handleResourceNotFoundException(new ResourceNotFoundException("Guest", "id", 42L), request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> validationFailed() {
+        return handler.handleValidationException(new ValidationException("Page size must be between 1 and 500"), request);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> requestBodyInvalid() {
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new GuestRequest(), "guestRequest");
+        bindingResult.rejectValue("name", "NotBlank", "Guest name is required");
+        bindingResult.rejectValue("email", "Email", "Invalid email format");
+        return handler.handleMethodArgumentNotValidException(
+                new MethodArgumentNotValidException(createGuestParameter, bindingResult), request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> unexpectedError() {
+        return handler.handleGlobalException(new IllegalStateException("Unexpected"), request);
+    }
+
+    /**
+     * Stands in for the controller method whose {@code @Valid} body failed
+     */
+    @SuppressWarnings("unused")
+    private void createGuest(GuestRequest guestRequest) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.prgx.migration.api.util.benchmark;
+
+import com.prgx.migration.api.util.dto.request.GuestBatchRequest;
+import com.prgx.migration.api.util.dto.request.GuestRequest;
+import com.prgx.migration.api.util.dto.response.GuestResponse;
+import com.prgx.migration.api.util.model.Guest;
+import com.prgx.migration.api.util.repository.GuestRepository;
+import com.prgx.migration.api.util.service.GuestService;
+import com.prgx.migration.api.util.support.TemporaryApplication;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Guest list and detail reads through managed entities (the previous read path) versus
+ * {@link GuestResponse} constructor-expression projections, against a seeded H2 database.
+ * Run with {@code -prof gc} to compare {@code gc.alloc.rate.norm} (bytes per operation).
+ *
+ * <pre>
+ * ./mvnw -Pbenchmarks test -Djmh.include=GuestReadBenchmark -Djmh.args="-prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GuestReadBenchmark {
+
+    private static final long USER_ID = 1L;
+    private static final int GUESTS = 2_000;
+
+    @Param({"50", "500"})
+    private int pageSize;
+
+    private TemporaryApplication application;
+    private GuestRepository guestRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private long guestId;
+
+    @Setup
+    public void setUp() throws IOException {
+        application = TemporaryApplication.start();
+        guestRepository = application.getBean(GuestRepository.class);
+        entityManager = application.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(application.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        List<GuestBatchRequest.Operation> operations = IntStream.range(0, GUESTS)
+                .mapToObj(i -> GuestBatchRequest.Operation.builder()
+                        .op(GuestBatchRequest.OperationType.CREATE)
+                        .guest(GuestRequest.builder()
+                                .name("Benchmark Guest " + i)
+                                .email("guest" + i + "@example.com")
+                                .phone("+1555000" + i)
+                                .numOfGuests(1 + i % 4)
+                                .build())
+                        .build())
+                .toList();
+        guestId = application.getBean(GuestService.class).processBatch(operations, USER_ID)
+                .getResults().get(GUESTS / 2).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public List<GuestResponse> pageFromEntities() {
+        return readOnly.execute(status -> entityManager
+                .createQuery("SELECT g FROM Guest g WHERE g.userId = :userId AND g.id > :afterId ORDER BY g.id", Guest.class)
+                .setParameter("userId", USER_ID)
+                .setParameter("afterId", 0L)
+                .setMaxResults(pageSize)
+                .getResultStream()
+                .map(GuestReadBenchmark::toResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public List<GuestResponse> pageFromProjection() {
+        return readOnly.execute(status ->
+                guestRepository.findPageByUserIdAfterId(USER_ID, 0L, PageRequest.ofSize(pageSize)));
+    }
+
+    @Benchmark
+    public GuestResponse detailFromEntity() {
+        return readOnly.execute(status -> guestRepository.findByIdAndUserId(guestId, USER_ID)
+                .map(GuestReadBenchmark::toResponse)
+                .orElseThrow());
+    }
+
+    @Benchmark
+    public GuestResponse detailFromProjection() {
+        return readOnly.execute(status -> guestRepository.findResponseByIdAndUserId(guestId, USER_ID).orElseThrow());
+    }
+
+    /**
+     * The entity-to-response copy the read path made before it selected projections
+     */
+    private static GuestResponse toResponse(Guest guest) {
+        return GuestResponse.builder()
+                .id(guest.getId())
+                .name(guest.getName())
+                .email(guest.getEmail())
+                .phone(guest.getPhone())
+                .numOfGuests(guest.getNumOfGuests())
+                .userId(guest.getUserId())
+                .createdAt(guest.getCreatedAt())
+                .updatedAt(guest.getUpdatedAt())
+                .version(guest.getVersion())
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.prgx.migration.api.util.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.prgx.migration.api.util.dto.response.GuestResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * JSON serialization of {@link GuestResponse} lists, at list sizes from a small page to a large
+ * export; the mapper is configured like the application's. Reads select responses as projections,
+ * so there is no entity mapping left on the list path to measure.
+ *
+ * <pre>
+ * ./mvnw -Pbenchmarks test -Djmh.include=GuestResponseBenchmark -Djmh.args="-prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GuestResponseBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int rows;
+
+    private List<GuestResponse> responses;
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        responses = IntStream.range(0, rows)
+                .mapToObj(i -> GuestResponse.builder()
+                        .id((long) i + 1)
+                        .name("Benchmark Guest " + i)
+                        .email("guest" + i + "@example.com")
+                        .phone("+1 555 000 " + i)
+                        .numOfGuests(1 + i % 4)
+                        .userId(1L)
+                        .createdAt(createdAt.plusSeconds(i))
+                        .updatedAt(createdAt.plusSeconds(i))
+                        .version(0L)
+                        .build())
+                .toList();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, GuestResponse.class));
+    }
+
+    @Benchmark
+    public byte[] serializeListToBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    /**
+     * Streams into a sink like the servlet output stream would, without buffering the whole body
+     */
+    @Benchmark
+    public void serializeListStreaming() throws IOException {
+        listWriter.writeValue(OutputStream.nullOutputStream(), responses);
+    }
+}
@@ -0,0 +1,70 @@
+package com.prgx.migration.api.util.benchmark;
+
+import com.prgx.migration.api.util.dto.response.GuestResponse;
+import com.prgx.migration.api.util.service.GuestTokenIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency of a {@link GuestTokenIndex} holding 100k guests of one user, for a selective
+ * surname, a short and therefore broad prefix, a phone prefix, a two-word query and an email prefix.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GuestSearchBenchmark {
+
+    private static final int GUESTS = 100_000;
+    private static final String[] FIRST_NAMES = {"james", "mary", "john", "patricia", "robert", "jennifer",
+            "michael", "linda", "william", "elizabeth", "david", "barbara", "richard", "susan", "joseph", "jessica"};
+    private static final String[] DOMAINS = {"example.com", "mail.test", "corp.example", "guests.org"};
+
+    @Param({"surname", "short-prefix", "phone", "two-words", "email"})
+    private String query;
+
+    private GuestTokenIndex index;
+    private List<String> terms;
+
+    @Setup
+    public void setUp() {
+        index = new GuestTokenIndex();
+        for (int i = 0; i < GUESTS; i++) {
+            String first = FIRST_NAMES[i % FIRST_NAMES.length];
+            String last = "surname" + (i % 5_000);
+            index.put(GuestResponse.builder()
+                    .id((long) i + 1)
+                    .name(capitalize(first) + " " + capitalize(last))
+                    .email(first + "." + last + "@" + DOMAINS[i % DOMAINS.length])
+                    .phone(String.format("+1 (555) %03d-%04d", i % 1000, i % 10_000))
+                    .numOfGuests(1 + i % 4)
+                    .userId(1L)
+                    .build());
+        }
+        terms = GuestTokenIndex.parseQuery(switch (query) {
+            case "surname" -> "Surname4242";
+            case "short-prefix" -> "j";
+            case "phone" -> "+1 (555) 12";
+            case "email" -> "jennifer.surname12@mail";
+            default -> "jennifer surname12";
+        });
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    @Benchmark
+    public List<GuestResponse> firstPage() {
+        return index.search(terms, 0, 21);
+    }
+
+    @Benchmark
+    public List<GuestResponse> fifthPage() {
+        return index.search(terms, 80, 21);
+    }
+}
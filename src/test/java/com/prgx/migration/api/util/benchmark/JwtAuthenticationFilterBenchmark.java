@@ -0,0 +1,80 @@
+package com.prgx.migration.api.util.benchmark;
+
+import com.prgx.migration.api.util.model.User;
+import com.prgx.migration.api.util.security.JwtAuthenticationFilter;
+import com.prgx.migration.api.util.security.RevokedTokens;
+import com.prgx.migration.api.util.security.VerifiedTokenCache;
+import com.prgx.migration.api.util.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request latency of {@link JwtAuthenticationFilter}. Sample-time mode reports p50/p99/p99.9
+ * for each {@code scenario}: a valid token with and without the verified-token cache,
+ * a request without an {@code Authorization} header and a token with a bad signature.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-0123456789abcdef0123456789abcdef";
+
+    @Param({"valid-cached", "valid-uncached", "missing", "invalid"})
+    private String scenario;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        JwtService jwtService = new JwtService(
+                new VerifiedTokenCache("valid-cached".equals(scenario), 10_000, new SimpleMeterRegistry()),
+                new RevokedTokens(100, new SimpleMeterRegistry()),
+                SECRET, TimeUnit.HOURS.toMillis(1));
+
+        User user = User.builder()
+                .id(42L)
+                .email("guest@example.com")
+                .name("Benchmark User")
+                .provider(User.AuthProvider.GOOGLE)
+                .providerId("benchmark")
+                .build();
+        String token = jwtService.generateToken(user);
+
+        request = new MockHttpServletRequest("GET", "/api/guests");
+        switch (scenario) {
+            case "valid-cached", "valid-uncached" -> request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+            case "invalid" -> request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token.substring(0, token.length() - 2) + "xx");
+            default -> {
+                // no Authorization header
+            }
+        }
+        response = new MockHttpServletResponse();
+        filter = new JwtAuthenticationFilter(jwtService);
+
+        // Acts as the end of the request: consume the authentication and reset the thread-bound context
+        chain = (req, res) -> {
+            blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+            SecurityContextHolder.clearContext();
+        };
+    }
+
+    @Benchmark
+    public void doFilter() throws Exception {
+        filter.doFilter(request, response, chain);
+    }
+}
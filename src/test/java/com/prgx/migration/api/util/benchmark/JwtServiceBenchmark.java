@@ -0,0 +1,80 @@
+package com.prgx.migration.api.util.benchmark;
+
+import com.prgx.migration.api.util.model.User;
+import com.prgx.migration.api.util.security.RevokedTokens;
+import com.prgx.migration.api.util.security.VerifiedTokenCache;
+import com.prgx.migration.api.util.service.JwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens generated and verified per second by {@link JwtService}.
+ * {@code verifyRebuildingParser} reproduces the old per-call key derivation and parser construction
+ * as the baseline for {@code verifyCachedParser}; {@code verifyCacheHit} goes through {@link VerifiedTokenCache}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-0123456789abcdef0123456789abcdef";
+
+    private JwtService jwtService;
+    private JwtService cachingJwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = newJwtService(false);
+        cachingJwtService = newJwtService(true);
+
+        user = User.builder()
+                .id(42L)
+                .email("guest@example.com")
+                .name("Benchmark User")
+                .provider(User.AuthProvider.GOOGLE)
+                .providerId("benchmark")
+                .build();
+        token = jwtService.generateToken(user);
+    }
+
+    private static JwtService newJwtService(boolean cacheEnabled) {
+        return new JwtService(new VerifiedTokenCache(cacheEnabled, 10_000, new SimpleMeterRegistry()),
+                new RevokedTokens(100, new SimpleMeterRegistry()), SECRET, TimeUnit.HOURS.toMillis(1));
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Long verifyCachedParser() {
+        return jwtService.verifyToken(token).principal().userId();
+    }
+
+    @Benchmark
+    public Long verifyCacheHit() {
+        return cachingJwtService.verifyToken(token).principal().userId();
+    }
+
+    @Benchmark
+    public Long verifyRebuildingParser() {
+        String subject = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+        return Long.parseLong(subject);
+    }
+}
@@ -0,0 +1,83 @@
+package com.prgx.migration.api.util.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Permit handling of {@link ConcurrencyLimitFilter}
+ */
+class ConcurrencyLimitFilterTests {
+
+    private static final Duration ACQUIRE_TIMEOUT = Duration.ofMillis(200);
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, ACQUIRE_TIMEOUT);
+
+    @Test
+    void rejectsRequestsBeyondTheLimitAfterTheAcquireTimeout() throws Exception {
+        CountDownLatch inChain = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            try {
+                filter((request, response) -> {
+                    inChain.countDown();
+                    await(release);
+                });
+            } catch (ServletException | IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        assertThat(inChain.await(5, TimeUnit.SECONDS)).isTrue();
+
+        long started = System.nanoTime();
+        MockHttpServletResponse rejected = filter(new MockFilterChain());
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(ACQUIRE_TIMEOUT);
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertThat(filter(new MockFilterChain()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void releasesThePermitWhenTheChainThrows() throws Exception {
+        FilterChain failing = (request, response) -> {
+            throw new ServletException("handler failed");
+        };
+        assertThatThrownBy(() -> filter(failing)).isInstanceOf(ServletException.class);
+        assertThatThrownBy(() -> filter(failing)).isInstanceOf(ServletException.class);
+
+        MockFilterChain chain = new MockFilterChain();
+        assertThat(filter(chain).getStatus()).isEqualTo(200);
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    private MockHttpServletResponse filter(FilterChain chain) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/guests"), response, chain);
+        return response;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.prgx.migration.api.util.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link RequestDbStatsFilter} and {@link RequestDbStatsListener} around statements run through a
+ * datasource-proxy over an in-memory H2 database, as MetricsConfig wires them
+ */
+class RequestDbStatsFilterTests {
+
+    private static final int WARN_REPEATED = 3;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestDbStatsFilter filter = new RequestDbStatsFilter(meterRegistry, 100, Duration.ofSeconds(10),
+            WARN_REPEATED);
+    private final ListAppender<ILoggingEvent> warnings = new ListAppender<>();
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:request-db-stats;DB_CLOSE_DELAY=-1");
+        dataSource = ProxyDataSourceBuilder.create(h2).listener(new RequestDbStatsListener()).build();
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS items (id INT)");
+        }
+        warnings.start();
+        filterLogger().addAppender(warnings);
+    }
+
+    @AfterEach
+    void tearDown() {
+        filterLogger().detachAppender(warnings);
+    }
+
+    @Test
+    void recordsStatementsPerRequestTaggedLikeHttpServerRequests() throws Exception {
+        MockHttpServletResponse response = filter("GET", "/api/guests/{id}", (request, servletResponse) -> {
+            query("SELECT 1");
+            query("SELECT 2");
+        });
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        DistributionSummary statements = meterRegistry.get(RequestDbStatsFilter.STATEMENTS_METRIC)
+                .tags("method", "GET", "uri", "/api/guests/{id}", "outcome", "SUCCESS")
+                .summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get(RequestDbStatsFilter.TIME_METRIC)
+                .tags("method", "GET", "uri", "/api/guests/{id}", "outcome", "SUCCESS")
+                .timer().count()).isEqualTo(1);
+        assertThat(warnings.list).isEmpty();
+    }
+
+    @Test
+    void tagsUnmatchedRequestsWithOneUri() throws Exception {
+        filter("GET", null, (request, response) -> ((MockHttpServletResponse) response).setStatus(404));
+
+        assertThat(meterRegistry.get(RequestDbStatsFilter.STATEMENTS_METRIC)
+                .tags("method", "GET", "uri", "UNKNOWN", "outcome", "CLIENT_ERROR")
+                .summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    void warnsAboutStatementsRepeatedWarnRepeatedTimes() throws Exception {
+        filter("GET", "/api/guests", (request, response) -> {
+            for (int i = 0; i < WARN_REPEATED - 1; i++) {
+                query("SELECT 1");
+            }
+        });
+        assertThat(warnings.list).isEmpty();
+
+        filter("GET", "/api/guests", (request, response) -> {
+            for (int i = 0; i < WARN_REPEATED; i++) {
+                query("SELECT 1");
+            }
+        });
+
+        assertThat(warnings.list).singleElement().satisfies(event -> {
+            assertThat(event.getLevel()).isEqualTo(Level.WARN);
+            assertThat(event.getFormattedMessage())
+                    .isEqualTo("GET /api/guests ran the same statement 3 times (possible N+1): SELECT 1");
+        });
+    }
+
+    @Test
+    void countsBatchesWithoutTreatingThemAsRepeats() throws Exception {
+        filter("POST", "/api/guests/batch", (request, response) -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement insert = connection.prepareStatement("INSERT INTO items (id) VALUES (?)")) {
+                for (int batch = 0; batch < WARN_REPEATED + 1; batch++) {
+                    insert.setInt(1, batch);
+                    insert.addBatch();
+                    insert.executeBatch();
+                }
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+
+        assertThat(meterRegistry.get(RequestDbStatsFilter.STATEMENTS_METRIC)
+                .tags("method", "POST", "uri", "/api/guests/batch")
+                .summary().totalAmount()).isEqualTo(WARN_REPEATED + 1);
+        assertThat(warnings.list).isEmpty();
+    }
+
+    private MockHttpServletResponse filter(String method, String pattern, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/guests");
+        if (pattern != null) {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private void query(String sql) {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeQuery(sql).close();
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Logger filterLogger() {
+        return (Logger) LoggerFactory.getLogger(RequestDbStatsFilter.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.prgx.migration.api.util.config;
+
+import com.prgx.migration.api.util.service.JwtService;
+import com.prgx.migration.api.util.support.TestUsers;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Request database statistics end to end, with the dev-profile headers switched on, against the
+ * in-memory H2 test profile; and {@link RequestDbStatsHeaderAdvice} staying out of contexts that do not
+ */
+@SpringBootTest(properties = "app.db.request-stats.headers=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RequestDbStatsHeaderAdviceTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void reportsTheRequestsStatementsInHeadersAndMetrics() throws Exception {
+        String bearer = TestUsers.bearer(jwtService, TestUsers.newUserId());
+
+        MvcResult result = mockMvc.perform(get("/api/guests").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        int statements = Integer.parseInt(result.getResponse().getHeader("X-DB-Statements"));
+        assertThat(statements).isPositive();
+        assertThat(result.getResponse().getHeader("Server-Timing"))
+                .matches("db;dur=\\d+\\.\\d{3};desc=\"" + statements + " statements\"");
+        assertThat(meterRegistry.get(RequestDbStatsFilter.STATEMENTS_METRIC)
+                .tags("method", "GET", "uri", "/api/guests", "outcome", "SUCCESS")
+                .summary().count()).isPositive();
+    }
+
+    @Test
+    void isOnlyRegisteredWhenHeadersAreEnabled() {
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withUserConfiguration(RequestDbStatsHeaderAdvice.class);
+
+        runner.run(context -> assertThat(context).doesNotHaveBean(RequestDbStatsHeaderAdvice.class));
+        runner.withPropertyValues("app.db.request-stats.headers=false")
+                .run(context -> assertThat(context).doesNotHaveBean(RequestDbStatsHeaderAdvice.class));
+        runner.withPropertyValues("app.db.request-stats.headers=true")
+                .run(context -> assertThat(context).hasSingleBean(RequestDbStatsHeaderAdvice.class));
+    }
+}
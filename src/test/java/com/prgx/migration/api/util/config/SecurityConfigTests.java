@@ -0,0 +1,178 @@
+package com.prgx.migration.api.util.config;
+
+import com.prgx.migration.api.util.dto.request.GuestRequest;
+import com.prgx.migration.api.util.model.User;
+import com.prgx.migration.api.util.security.RevokedTokens;
+import com.prgx.migration.api.util.security.VerifiedTokenCache;
+import com.prgx.migration.api.util.service.GuestChangeFeed;
+import com.prgx.migration.api.util.service.GuestService;
+import com.prgx.migration.api.util.service.JwtService;
+import com.prgx.migration.api.util.support.TestUsers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Bearer authentication through {@link SecurityConfig} and the JWT filter, over MockMvc
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecurityConfigTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GuestService guestService;
+
+    @Autowired
+    private GuestChangeFeed guestChangeFeed;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Value("${app.jwt.secret}")
+    private String jwtSecret;
+
+    private long userId;
+    private String bearer;
+
+    @BeforeEach
+    void newUser() {
+        userId = TestUsers.newUserId();
+        bearer = TestUsers.bearer(jwtService, userId);
+    }
+
+    @Test
+    void rejectsRequestsWithoutToken() throws Exception {
+        mockMvc.perform(get("/api/guests/count"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void rejectsTokensWithBadSignature() throws Exception {
+        String foreign = otherJwtService("another-secret-0123456789abcdef0123456789abcdef", TimeUnit.HOURS.toMillis(1))
+                .generateToken(user(userId));
+
+        mockMvc.perform(get("/api/guests/count").header(HttpHeaders.AUTHORIZATION, "Bearer " + foreign))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void rejectsExpiredTokens() throws Exception {
+        String expired = otherJwtService(jwtSecret, -TimeUnit.MINUTES.toMillis(1)).generateToken(user(userId));
+
+        mockMvc.perform(get("/api/guests/count").header(HttpHeaders.AUTHORIZATION, "Bearer " + expired))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void ignoresOtherAuthorizationSchemes() throws Exception {
+        String token = bearer.substring("Bearer ".length());
+
+        mockMvc.perform(get("/api/guests/count").header(HttpHeaders.AUTHORIZATION, "Token " + token))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/guests/count").header(HttpHeaders.AUTHORIZATION, "Basic dXNlcjpwYXNz"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/guests/count").header(HttpHeaders.AUTHORIZATION, "bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void resolvesTheTokenSubjectAsThePrincipalUserId() throws Exception {
+        Long guestId = guestService.createGuest(GuestRequest.builder().name("Ada Lovelace").build(), userId).getId();
+        String otherUser = TestUsers.bearer(jwtService, TestUsers.newUserId());
+
+        mockMvc.perform(get("/api/guests/{id}", guestId).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(userId));
+        mockMvc.perform(get("/api/guests/{id}", guestId).header(HttpHeaders.AUTHORIZATION, otherUser))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void rejectsTokensAfterLogout() throws Exception {
+        String otherUser = TestUsers.bearer(jwtService, TestUsers.newUserId());
+        mockMvc.perform(get("/api/guests/count").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/auth/logout").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/guests/count").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/auth/logout").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/guests/count").header(HttpHeaders.AUTHORIZATION, otherUser))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void leavesPublicEndpointsOpen() throws Exception {
+        mockMvc.perform(get("/"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void completesStreamedExportsOnAsyncDispatch() throws Exception {
+        guestService.createGuest(GuestRequest.builder().name("Grace Hopper").build(), userId);
+
+        MvcResult result = mockMvc.perform(get("/api/guests/export").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Grace Hopper")));
+    }
+
+    @Test
+    void completesEventStreamsOnAsyncDispatch() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/guests/events").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> result.getResponse().getContentAsString().contains("event:ready"));
+
+        guestChangeFeed.closeAll();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+    }
+
+    private static JwtService otherJwtService(String secret, long expirationMs) {
+        return new JwtService(new VerifiedTokenCache(false, 0, new SimpleMeterRegistry()),
+                new RevokedTokens(100, new SimpleMeterRegistry()), secret, expirationMs);
+    }
+
+    private static User user(long id) {
+        return User.builder()
+                .id(id)
+                .email("user" + id + "@example.com")
+                .name("Test User " + id)
+                .provider(User.AuthProvider.GOOGLE)
+                .build();
+    }
+}
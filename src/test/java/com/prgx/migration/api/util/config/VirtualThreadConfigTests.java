@@ -0,0 +1,80 @@
+package com.prgx.migration.api.util.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ResolvableType;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * How {@link VirtualThreadConfig} sizes the concurrency limit, with the pool wrapped like in the application
+ */
+class VirtualThreadConfigTests {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            // Converts "5s" for @Value Duration parameters, as SpringApplication does
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(VirtualThreadConfig.class)
+            .withPropertyValues("spring.threads.virtual.enabled=true");
+
+    @Test
+    void derivesTheLimitFromThePoolBehindTheStatementProxy() {
+        contextRunner
+                .withBean("requestDbStatsDataSourceProxy", BeanPostProcessor.class,
+                        MetricsConfig::requestDbStatsDataSourceProxy)
+                .withBean("dataSource", DataSource.class, () -> pool(4))
+                .withPropertyValues("app.execution.virtual.requests-per-connection=3")
+                .run(context -> {
+                    assertThat(context.getBean(DataSource.class)).isInstanceOf(ProxyDataSource.class);
+                    assertThat(limit(context)).isEqualTo(12);
+                });
+    }
+
+    @Test
+    void prefersAnExplicitLimit() {
+        contextRunner
+                .withBean("dataSource", DataSource.class, () -> pool(4))
+                .withPropertyValues("app.execution.virtual.max-concurrent-requests=50")
+                .run(context -> assertThat(limit(context)).isEqualTo(50));
+    }
+
+    @Test
+    void fallsBackWithoutAPool() {
+        contextRunner.run(context -> assertThat(limit(context)).isEqualTo(200));
+    }
+
+    @Test
+    void staysOffWithPlatformThreads() {
+        contextRunner
+                .withPropertyValues("spring.threads.virtual.enabled=false")
+                .run(context -> assertThat(context).doesNotHaveBean(FilterRegistrationBean.class));
+    }
+
+    /**
+     * Never connects: Hikari opens connections on first use
+     */
+    private static HikariDataSource pool(int size) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:virtual-thread-config");
+        pool.setMaximumPoolSize(size);
+        return pool;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int limit(ApplicationContext context) {
+        String[] names = context.getBeanNamesForType(ResolvableType.forClassWithGenerics(
+                FilterRegistrationBean.class, ConcurrencyLimitFilter.class));
+        assertThat(names).hasSize(1);
+        return ((FilterRegistrationBean<ConcurrencyLimitFilter>) context.getBean(names[0])).getFilter()
+                .getMaxConcurrentRequests();
+    }
+}
@@ -0,0 +1,288 @@
+package com.prgx.migration.api.util.controller;
+
+import com.prgx.migration.api.util.config.RequestDbStatsFilter;
+import com.prgx.migration.api.util.dto.request.GuestPatchRequest;
+import com.prgx.migration.api.util.dto.request.GuestRequest;
+import com.prgx.migration.api.util.dto.response.GuestResponse;
+import com.prgx.migration.api.util.service.GuestETags;
+import com.prgx.migration.api.util.service.GuestService;
+import com.prgx.migration.api.util.service.JwtService;
+import com.prgx.migration.api.util.support.TestUsers;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.containsStringIgnoringCase;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Entity tags and conditional requests on the guest API, against the in-memory H2 test profile
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class GuestConditionalRequestTests {
+
+    private static final String ORIGIN = "http://localhost:3000";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GuestService guestService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long userId;
+    private String bearer;
+
+    @BeforeEach
+    void newUser() {
+        userId = TestUsers.newUserId();
+        bearer = TestUsers.bearer(jwtService, userId);
+    }
+
+    @Test
+    void answersMatchingListTagWithOneAggregateQuery() throws Exception {
+        createGuest("Ada Lovelace");
+        String listTag = listTag();
+        double statementsBefore = notModifiedListStatements().totalAmount();
+        long notModifiedBefore = notModifiedListStatements().count();
+
+        mockMvc.perform(get("/api/guests").header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_NONE_MATCH, listTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, listTag));
+
+        assertThat(notModifiedListStatements().count()).isEqualTo(notModifiedBefore + 1);
+        assertThat(notModifiedListStatements().totalAmount()).isEqualTo(statementsBefore + 1);
+    }
+
+    @Test
+    void changesListTagForWritesThisNodeNeverSaw() throws Exception {
+        GuestResponse first = createGuest("Ada Lovelace");
+        createGuest("Grace Hopper");
+        String listTag = listTag();
+
+        // Another node's update, committed with an older timestamp than the newest guest's
+        jdbcTemplate.update("UPDATE guests SET name = ?, version = version + 1 WHERE id = ?",
+                "Ada King", first.getId());
+        String updated = listTag();
+        assertThat(updated).isNotEqualTo(listTag);
+
+        // Another node's delete and create: the count stays the same
+        jdbcTemplate.update("DELETE FROM guests WHERE id = ?", first.getId());
+        jdbcTemplate.update("INSERT INTO guests (id, user_id, name, num_of_guests, created_at, updated_at, version) "
+                + "VALUES (NEXT VALUE FOR guests_seq, ?, ?, 1, ?, ?, 0)",
+                userId, "Katherine Johnson", LocalDateTime.now().minusDays(1), LocalDateTime.now().minusDays(1));
+        assertThat(listTag()).isNotEqualTo(updated).isNotEqualTo(listTag);
+    }
+
+    @Test
+    void answersMatchingGuestTagWithNotModified() throws Exception {
+        GuestResponse guest = createGuest("Ada Lovelace");
+
+        mockMvc.perform(get("/api/guests/{id}", guest.getId()).header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_NONE_MATCH, GuestETags.forGuest(guest)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void writesChangeBothListAndGuestTags() throws Exception {
+        GuestResponse guest = createGuest("Ada Lovelace");
+        String listTag = listTag();
+        String guestTag = guestTag(guest.getId());
+
+        mockMvc.perform(put("/api/guests/{id}", guest.getId()).header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Ada King\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/guests").header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_NONE_MATCH, listTag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/guests/{id}", guest.getId()).header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_NONE_MATCH, guestTag))
+                .andExpect(status().isOk());
+        assertThat(listTag()).isNotEqualTo(listTag);
+        assertThat(guestTag(guest.getId())).isNotEqualTo(guestTag);
+    }
+
+    @Test
+    void tagsGuestsConsistently() throws Exception {
+        GuestResponse guest = createGuest("Ada Lovelace");
+
+        assertThat(guestService.getGuestETag(guest.getId(), userId))
+                .isEqualTo(GuestETags.forGuest(guest))
+                .isEqualTo(GuestETags.forGuest(guestService.getGuestById(guest.getId(), userId)))
+                .isEqualTo(guestTag(guest.getId()));
+    }
+
+    @Test
+    void patchesOnlyTheFieldsSent() throws Exception {
+        GuestResponse guest = guestService.createGuest(GuestRequest.builder()
+                .name("Ada Lovelace").email("ada@example.com").phone("555-1234").numOfGuests(3).build(), userId);
+
+        mockMvc.perform(patch("/api/guests/{id}", guest.getId()).header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"phone\":null,\"numOfGuests\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, GuestETags.forGuest(guest.getId(), 1)))
+                .andExpect(jsonPath("$.name").value("Ada Lovelace"))
+                .andExpect(jsonPath("$.email").value("ada@example.com"))
+                .andExpect(jsonPath("$.phone").doesNotExist())
+                .andExpect(jsonPath("$.numOfGuests").value(1))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void rejectsPatchesThatWouldLeaveAnInvalidGuest() throws Exception {
+        GuestResponse guest = createGuest("Ada Lovelace");
+
+        for (String body : new String[]{"{\"name\":null}", "{\"name\":\" \"}", "{\"email\":\"not-an-email\"}", "{}"}) {
+            mockMvc.perform(patch("/api/guests/{id}", guest.getId()).header(HttpHeaders.AUTHORIZATION, bearer)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isBadRequest());
+        }
+        assertThat(guestService.getGuestById(guest.getId(), userId)).isEqualTo(guest);
+    }
+
+    @Test
+    void writesOnlyWhileIfMatchIsCurrent() throws Exception {
+        GuestResponse guest = createGuest("Ada Lovelace");
+        String original = GuestETags.forGuest(guest);
+
+        String patched = mockMvc.perform(patch("/api/guests/{id}", guest.getId()).header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_MATCH, original)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"ada@example.com\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(patch("/api/guests/{id}", guest.getId()).header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_MATCH, original)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Ada King\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/guests/{id}", guest.getId()).header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_MATCH, original)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Ada King\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/guests/{id}", guest.getId()).header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_MATCH, original + ", " + patched)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Ada King\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(2));
+    }
+
+    @Test
+    void answersIfMatchOnMissingGuestsWithNotFound() throws Exception {
+        String tag = GuestETags.forGuest(-1L, 0);
+
+        mockMvc.perform(patch("/api/guests/{id}", -1).header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_MATCH, tag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Ada King\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put("/api/guests/{id}", -1).header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_MATCH, tag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Ada King\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/guests/{id}", -1).header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_MATCH, tag))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deletesOnlyWhileIfMatchIsCurrent() throws Exception {
+        GuestResponse guest = createGuest("Ada Lovelace");
+        guestService.patchGuest(guest.getId(), GuestPatchRequest.builder().phone(Optional.of("555")).build(),
+                userId, null);
+
+        mockMvc.perform(delete("/api/guests/{id}", guest.getId()).header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_MATCH, GuestETags.forGuest(guest)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/guests/{id}", guest.getId()).header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_MATCH, GuestETags.forGuest(guest.getId(), 1)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/guests/{id}", guest.getId()).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void letsBrowsersSendAndReadConditionalAndDiagnosticHeaders() throws Exception {
+        mockMvc.perform(options("/api/guests/1")
+                        .header(HttpHeaders.ORIGIN, ORIGIN)
+                        .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "PATCH")
+                        .header(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS,
+                                "authorization,content-type,if-match,if-none-match,last-event-id"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, allOf(
+                        containsStringIgnoringCase("if-match"),
+                        containsStringIgnoringCase("if-none-match"),
+                        containsStringIgnoringCase("last-event-id"))));
+
+        mockMvc.perform(get("/api/guests").header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.ORIGIN, ORIGIN))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, allOf(
+                        containsString(HttpHeaders.ETAG),
+                        containsString("X-DB-Statements"),
+                        containsString("Server-Timing"))));
+    }
+
+    private GuestResponse createGuest(String name) {
+        return guestService.createGuest(GuestRequest.builder().name(name).build(), userId);
+    }
+
+    private String listTag() throws Exception {
+        return mockMvc.perform(get("/api/guests").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private String guestTag(Long id) throws Exception {
+        return mockMvc.perform(get("/api/guests/{id}", id).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private DistributionSummary notModifiedListStatements() {
+        return DistributionSummary.builder(RequestDbStatsFilter.STATEMENTS_METRIC)
+                .tags("method", "GET", "uri", "/api/guests", "outcome", "REDIRECTION")
+                .register(meterRegistry);
+    }
+}
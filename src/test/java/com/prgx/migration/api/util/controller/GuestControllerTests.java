@@ -0,0 +1,164 @@
+package com.prgx.migration.api.util.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prgx.migration.api.util.dto.request.GuestBatchRequest;
+import com.prgx.migration.api.util.dto.request.GuestRequest;
+import com.prgx.migration.api.util.dto.response.GuestBatchResponse;
+import com.prgx.migration.api.util.event.GuestBatchChangedEvent;
+import com.prgx.migration.api.util.event.GuestChangedEvent;
+import com.prgx.migration.api.util.service.GuestService;
+import com.prgx.migration.api.util.service.JwtService;
+import com.prgx.migration.api.util.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The guest REST contract over MockMvc, against the in-memory H2 test profile
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class GuestControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GuestService guestService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private long userId;
+    private String bearer;
+
+    @BeforeEach
+    void newUser() {
+        userId = TestUsers.newUserId();
+        bearer = TestUsers.bearer(jwtService, userId);
+    }
+
+    @Test
+    void walksKeysetPagesWithCursors() throws Exception {
+        List<Long> ids = createGuests(5);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        List<JsonNode> pages = new ArrayList<>();
+        do {
+            var request = get("/api/guests").param("size", "2").header(HttpHeaders.AUTHORIZATION, bearer);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(item -> seen.add(item.get("id").asLong()));
+            pages.add(page);
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(ids);
+        assertThat(pages).hasSize(3);
+        assertThat(pages.get(0).get("size").asInt()).isEqualTo(2);
+        assertThat(pages.get(0).get("hasMore").asBoolean()).isTrue();
+        JsonNode last = pages.get(2);
+        assertThat(last.get("size").asInt()).isEqualTo(1);
+        assertThat(last.get("hasMore").asBoolean()).isFalse();
+        assertThat(last.get("nextCursor").isNull()).isTrue();
+    }
+
+    @Test
+    void usesDefaultPageSizeAndRejectsOutOfRangeSizesAndCursors() throws Exception {
+        createGuests(3);
+
+        mockMvc.perform(get("/api/guests").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(3))
+                .andExpect(jsonPath("$.hasMore").value(false));
+        mockMvc.perform(get("/api/guests").param("size", "0").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/guests").param("size", "501").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/guests").param("cursor", "not a cursor").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void returnsTimestampsOfCreatedGuests() throws Exception {
+        mockMvc.perform(post("/api/guests")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Ada Lovelace\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.createdAt").isNotEmpty())
+                .andExpect(jsonPath("$.updatedAt").isNotEmpty());
+    }
+
+    @Test
+    void publishesOneChangeEventPerBatch() throws Exception {
+        Long updated = createGuests(1).get(0);
+        events.clear();
+
+        mockMvc.perform(post("/api/guests/batch")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"operations": [
+                                  {"op": "CREATE", "guest": {"name": "Ada Lovelace"}},
+                                  {"op": "CREATE", "guest": {"name": "Grace Hopper"}},
+                                  {"op": "UPDATE", "id": %d, "guest": {"name": "Alan Turing"}},
+                                  {"op": "DELETE", "id": -1}
+                                ]}""".formatted(updated)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.failed").value(1));
+
+        assertThat(events.stream(GuestChangedEvent.class)).isEmpty();
+        assertThat(events.stream(GuestBatchChangedEvent.class)).singleElement().satisfies(batch -> {
+            assertThat(batch.userId()).isEqualTo(userId);
+            assertThat(batch.changes()).extracting(GuestChangedEvent::type).containsExactly(
+                    GuestChangedEvent.Type.UPDATED, GuestChangedEvent.Type.CREATED, GuestChangedEvent.Type.CREATED);
+        });
+        mockMvc.perform(get("/api/guests/count").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(jsonPath("$.count").value(3));
+    }
+
+    private List<Long> createGuests(int count) {
+        return guestService.processBatch(IntStream.range(0, count)
+                        .mapToObj(i -> GuestBatchRequest.Operation.builder()
+                                .op(GuestBatchRequest.OperationType.CREATE)
+                                .guest(GuestRequest.builder().name("Guest " + i).build())
+                                .build())
+                        .toList(), userId)
+                .getResults().stream().map(GuestBatchResponse.ItemResult::getId).toList();
+    }
+}
@@ -0,0 +1,54 @@
+package com.prgx.migration.api.util.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares throughput and latency of the platform-thread and virtual-thread execution modes.
+ * Boots the application once per mode through {@link LoadTestHarness}, then keeps a fixed number
+ * of concurrent clients busy with a list/get/create mix.
+ *
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.prgx.migration.api.util.loadtest.ExecutionModeComparison \
+ *     -Dexec.args="--clients=400 --seconds=30 --guests=5000"
+ * </pre>
+ */
+public final class ExecutionModeComparison {
+
+    /**
+     * 70% list pages, 20% single reads, 10% creates
+     */
+    private static final Map<LoadTestHarness.Operation, Integer> MIX = LoadTestHarness.mix(70, 20, 10, 0, 0, 0);
+
+    private ExecutionModeComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = LoadTestHarness.intArg(args, "clients", 200);
+        int seconds = LoadTestHarness.intArg(args, "seconds", 20);
+        int warmupSeconds = LoadTestHarness.intArg(args, "warmup", 5);
+        int guests = LoadTestHarness.intArg(args, "guests", 2000);
+
+        Map<String, LoadTestHarness.Report> reports = new LinkedHashMap<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (LoadTestHarness harness = LoadTestHarness.start(virtual, 1, guests)) {
+                harness.runClosed(clients, Duration.ofSeconds(warmupSeconds), MIX);
+                reports.put(virtual ? "virtual" : "platform",
+                        harness.runClosed(clients, Duration.ofSeconds(seconds), MIX));
+            }
+        }
+
+        System.out.printf("%n%d clients, %ds measured, %d seeded guests%n", clients, seconds, guests);
+        System.out.printf("%-9s %10s %8s %9s %9s %9s%n", "mode", "req/s", "errors", "p50 ms", "p99 ms", "max ms");
+        reports.forEach((mode, report) -> {
+            Histogram total = report.total();
+            System.out.printf("%-9s %10.1f %8d %9.2f %9.2f %9.2f%n", mode, report.throughput(), report.totalErrors(),
+                    total.getValueAtPercentile(50) / 1_000_000.0, total.getValueAtPercentile(99) / 1_000_000.0,
+                    total.getMaxValue() / 1_000_000.0);
+        });
+    }
+}
@@ -0,0 +1,408 @@
+package com.prgx.migration.api.util.loadtest;
+
+import com.prgx.migration.api.util.dto.request.GuestBatchRequest;
+import com.prgx.migration.api.util.dto.request.GuestRequest;
+import com.prgx.migration.api.util.dto.response.GuestBatchResponse;
+import com.prgx.migration.api.util.model.User;
+import com.prgx.migration.api.util.repository.UserRepository;
+import com.prgx.migration.api.util.service.GuestService;
+import com.prgx.migration.api.util.service.JwtService;
+import com.prgx.migration.api.util.support.TemporaryApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * End-to-end load generator: boots the application on a random port with a throw-away H2 database,
+ * seeds users and guests, and drives a weighted list/get/create/update/delete/count mix over HTTP
+ * with the JDK client on virtual threads.
+ * <p>
+ * {@link #runOpen} sends at a fixed arrival rate and measures each request from its intended start,
+ * so a stalled server shows up as latency instead of silently lowering the load (coordinated
+ * omission). {@link #runClosed} keeps a fixed number of clients busy and measures throughput.
+ * Latencies are recorded in HdrHistograms; {@code main} prints a summary and writes one
+ * {@code .hgrm} percentile distribution per operation.
+ *
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.prgx.migration.api.util.loadtest.LoadTestHarness \
+ *     -Dexec.args="--users=20 --guests=1000 --rps=500 --seconds=60 --virtual=true"
+ * </pre>
+ */
+public final class LoadTestHarness implements AutoCloseable {
+
+    public enum Operation { LIST, GET, CREATE, UPDATE, DELETE, COUNT }
+
+    /**
+     * Read-heavy default: 40% list pages, 25% reads, 10% each creates, updates and counts, 5% deletes
+     */
+    public static final Map<Operation, Integer> DEFAULT_MIX = mix(40, 25, 10, 10, 5, 10);
+
+    /**
+     * Requests allowed in flight in the open model before further arrivals are shed
+     */
+    private static final int MAX_IN_FLIGHT = 10_000;
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final TemporaryApplication application;
+    private final URI baseUri;
+    private final HttpClient http;
+    private final List<SeededUser> users;
+
+    private LoadTestHarness(TemporaryApplication application, URI baseUri, List<SeededUser> users) {
+        this.application = application;
+        this.baseUri = baseUri;
+        this.users = users;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * Boot the application and seed {@code users} users with {@code guestsPerUser} guests each
+     *
+     * @param extraArgs additional {@code --property=value} arguments for the application
+     */
+    public static LoadTestHarness start(boolean virtualThreads, int users, int guestsPerUser, String... extraArgs)
+            throws IOException {
+        List<String> args = new ArrayList<>(List.of("--VIRTUAL_THREADS_ENABLED=" + virtualThreads));
+        args.addAll(List.of(extraArgs));
+        TemporaryApplication application = TemporaryApplication.start(args.toArray(String[]::new));
+        try {
+            List<SeededUser> seeded = seed(application.context(), users, guestsPerUser);
+            return new LoadTestHarness(application, URI.create("http://localhost:" + application.port()), seeded);
+        } catch (RuntimeException ex) {
+            application.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Open model: requests arrive at {@code targetRps} regardless of how fast earlier ones complete
+     */
+    public Report runOpen(int targetRps, Duration duration, Map<Operation, Integer> mix) throws InterruptedException {
+        Recording recording = new Recording();
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        long intervalNanos = 1_000_000_000L / targetRps;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intendedStart = start + i * intervalNanos;
+                if (intendedStart >= end) {
+                    break;
+                }
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (!inFlight.tryAcquire()) {
+                    recording.shed.increment();
+                    continue;
+                }
+                Operation operation = pick(mix);
+                executor.execute(() -> {
+                    try {
+                        recording.record(intendedStart, send(operation));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return recording.report("open " + targetRps + " rps", duration);
+    }
+
+    /**
+     * Closed model: {@code clients} virtual threads each send their next request as soon as the last one completes
+     */
+    public Report runClosed(int clients, Duration duration, Map<Operation, Integer> mix) throws InterruptedException {
+        Recording recording = new Recording();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int c = 0; c < clients; c++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                while (System.nanoTime() < deadline) {
+                    Operation operation = pick(mix);
+                    long start = System.nanoTime();
+                    recording.record(start, send(operation));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return recording.report("closed " + clients + " clients", duration);
+    }
+
+    @Override
+    public void close() {
+        http.close();
+        application.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = intArg(args, "users", 10);
+        int guests = intArg(args, "guests", 1000);
+        int rps = intArg(args, "rps", 200);
+        int seconds = intArg(args, "seconds", 30);
+        int warmupSeconds = intArg(args, "warmup", 5);
+        boolean virtual = Boolean.parseBoolean(stringArg(args, "virtual", "false"));
+        Path out = Path.of(stringArg(args, "out", "target/loadtest"));
+
+        try (LoadTestHarness harness = start(virtual, users, guests)) {
+            harness.runOpen(rps, Duration.ofSeconds(warmupSeconds), DEFAULT_MIX);
+            Report report = harness.runOpen(rps, Duration.ofSeconds(seconds), DEFAULT_MIX);
+
+            System.out.printf("%n%s, %ds, %d users x %d guests, %s threads%n",
+                    report.label(), seconds, users, guests, virtual ? "virtual" : "platform");
+            report.print(System.out);
+            report.writeHgrm(out);
+            System.out.println("Percentile distributions written to " + out.toAbsolutePath());
+        }
+    }
+
+    static int intArg(String[] args, String name, int defaultValue) {
+        return Integer.parseInt(stringArg(args, name, Integer.toString(defaultValue)));
+    }
+
+    static String stringArg(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        return Arrays.stream(args)
+                .filter(arg -> arg.startsWith(prefix))
+                .map(arg -> arg.substring(prefix.length()))
+                .findFirst()
+                .orElse(defaultValue);
+    }
+
+    /**
+     * Weights in {@link Operation} order
+     */
+    public static Map<Operation, Integer> mix(int list, int get, int create, int update, int delete, int count) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        mix.put(Operation.LIST, list);
+        mix.put(Operation.GET, get);
+        mix.put(Operation.CREATE, create);
+        mix.put(Operation.UPDATE, update);
+        mix.put(Operation.DELETE, delete);
+        mix.put(Operation.COUNT, count);
+        return mix;
+    }
+
+    private static List<SeededUser> seed(ConfigurableApplicationContext context, int users, int guestsPerUser) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        GuestService guestService = context.getBean(GuestService.class);
+        JwtService jwtService = context.getBean(JwtService.class);
+
+        List<SeededUser> seeded = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) {
+            User user = userRepository.save(User.builder()
+                    .email("load-test-" + u + "@example.com")
+                    .name("Load Test " + u)
+                    .provider(User.AuthProvider.GOOGLE)
+                    .providerId("load-test-" + u)
+                    .build());
+            List<GuestBatchRequest.Operation> operations = IntStream.range(0, guestsPerUser)
+                    .mapToObj(i -> GuestBatchRequest.Operation.builder()
+                            .op(GuestBatchRequest.OperationType.CREATE)
+                            .guest(GuestRequest.builder()
+                                    .name("Seed Guest " + i)
+                                    .email("seed" + i + "@example.com")
+                                    .numOfGuests(1 + i % 4)
+                                    .build())
+                            .build())
+                    .toList();
+            long[] guestIds = guestService.processBatch(operations, user.getId()).getResults().stream()
+                    .mapToLong(GuestBatchResponse.ItemResult::getId)
+                    .toArray();
+            seeded.add(new SeededUser("Bearer " + jwtService.generateToken(user), guestIds, new ConcurrentLinkedQueue<>()));
+        }
+        return seeded;
+    }
+
+    private static Operation pick(Map<Operation, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int pick = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Operation, Integer> weight : mix.entrySet()) {
+            pick -= weight.getValue();
+            if (pick < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    /**
+     * Seeded guests are only read and updated; deletes take guests this run created, so the dataset
+     * keeps its size and no request targets a guest that is already gone. A delete with nothing to
+     * delete yet is sent as a create.
+     */
+    private Sent send(Operation requested) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        SeededUser user = users.get(random.nextInt(users.size()));
+        Long deletable = requested == Operation.DELETE ? user.created().poll() : null;
+        Operation operation = requested == Operation.DELETE && deletable == null ? Operation.CREATE : requested;
+        long seededId = user.guestIds().length > 0 ? user.guestIds()[random.nextInt(user.guestIds().length)] : 0;
+        HttpRequest.Builder request = switch (operation) {
+            case LIST -> HttpRequest.newBuilder(baseUri.resolve("/api/guests?size=50")).GET();
+            case GET -> HttpRequest.newBuilder(baseUri.resolve("/api/guests/" + seededId)).GET();
+            case CREATE -> json(HttpRequest.newBuilder(baseUri.resolve("/api/guests")))
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"name\":\"Load Guest\",\"email\":\"load@example.com\",\"numOfGuests\":2}"));
+            case UPDATE -> json(HttpRequest.newBuilder(baseUri.resolve("/api/guests/" + seededId)))
+                    .PUT(HttpRequest.BodyPublishers.ofString(
+                            "{\"name\":\"Updated Guest " + random.nextInt(1000) + "\",\"numOfGuests\":3}"));
+            case DELETE -> HttpRequest.newBuilder(baseUri.resolve("/api/guests/" + deletable)).DELETE();
+            case COUNT -> HttpRequest.newBuilder(baseUri.resolve("/api/guests/count")).GET();
+        };
+        try {
+            HttpResponse<String> response = http.send(request.header("Authorization", user.authorization()).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (operation == Operation.CREATE && response.statusCode() < 300) {
+                Matcher id = ID.matcher(response.body());
+                if (id.find()) {
+                    user.created().add(Long.parseLong(id.group(1)));
+                }
+            }
+            return new Sent(operation, response.statusCode() < 400);
+        } catch (IOException ex) {
+            return new Sent(operation, false);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return new Sent(operation, false);
+        }
+    }
+
+    private static HttpRequest.Builder json(HttpRequest.Builder request) {
+        return request.header("Content-Type", "application/json");
+    }
+
+    private record Sent(Operation operation, boolean ok) {
+    }
+
+    private record SeededUser(String authorization, long[] guestIds, ConcurrentLinkedQueue<Long> created) {
+    }
+
+    /**
+     * Latency histograms (nanoseconds) and error counts per operation, shared by all sending threads
+     */
+    private static final class Recording {
+
+        private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        private final LongAdder shed = new LongAdder();
+
+        Recording() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new ConcurrentHistogram(3));
+                errors.put(operation, new LongAdder());
+            }
+        }
+
+        void record(long startNanos, Sent sent) {
+            latencies.get(sent.operation()).recordValue(System.nanoTime() - startNanos);
+            if (!sent.ok()) {
+                errors.get(sent.operation()).increment();
+            }
+        }
+
+        Report report(String label, Duration duration) {
+            Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+            Map<Operation, Long> errorCounts = new EnumMap<>(Operation.class);
+            latencies.forEach((operation, histogram) -> histograms.put(operation, histogram.copy()));
+            errors.forEach((operation, count) -> errorCounts.put(operation, count.sum()));
+            return new Report(label, duration, histograms, errorCounts, shed.sum());
+        }
+    }
+
+    /**
+     * Result of one run. {@code shed} counts open-model arrivals dropped because too many requests were in flight.
+     */
+    public record Report(String label, Duration duration, Map<Operation, Histogram> latencies,
+                         Map<Operation, Long> errors, long shed) {
+
+        private static final String FORMAT = "%-8s %9s %9s %8s %9s %9s %9s %9s %9s%n";
+
+        public Histogram total() {
+            Histogram total = new Histogram(3);
+            latencies.values().forEach(total::add);
+            return total;
+        }
+
+        public long totalErrors() {
+            return errors.values().stream().mapToLong(Long::longValue).sum() + shed;
+        }
+
+        public double throughput() {
+            return total().getTotalCount() / (duration.toMillis() / 1000.0);
+        }
+
+        public double errorRate() {
+            long requests = total().getTotalCount() + shed;
+            return requests == 0 ? 0 : (double) totalErrors() / requests;
+        }
+
+        public void print(PrintStream out) {
+            out.printf(FORMAT, "op", "count", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            latencies.forEach((operation, histogram) -> printRow(out, operation.name(), histogram, errors.get(operation)));
+            printRow(out, "TOTAL", total(), totalErrors());
+            out.printf("error rate %.3f%%, shed %d%n", errorRate() * 100, shed);
+        }
+
+        /**
+         * One HdrHistogram percentile distribution ({@code .hgrm}, values in milliseconds) per operation plus the total
+         */
+        public void writeHgrm(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            for (Map.Entry<Operation, Histogram> entry : latencies.entrySet()) {
+                writeHgrm(directory.resolve(entry.getKey().name().toLowerCase() + ".hgrm"), entry.getValue());
+            }
+            writeHgrm(directory.resolve("total.hgrm"), total());
+        }
+
+        private static void writeHgrm(Path file, Histogram histogram) throws IOException {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(out, 1_000_000.0);
+            }
+        }
+
+        private void printRow(PrintStream out, String name, Histogram histogram, long errorCount) {
+            out.printf(FORMAT, name, histogram.getTotalCount(),
+                    String.format("%.1f", histogram.getTotalCount() / (duration.toMillis() / 1000.0)), errorCount,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static String millis(long nanos) {
+            return String.format("%.2f", nanos / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.prgx.migration.api.util.repository;
+
+import com.prgx.migration.api.util.dto.response.GuestResponse;
+import com.prgx.migration.api.util.model.Guest;
+import com.prgx.migration.api.util.model.User;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the postgres profile against a local embedded PostgreSQL binary: Flyway migrations,
+ * schema validation and the Guest/User repository queries. The {@code test} profile supplies the
+ * secrets; postgres, listed after it, overrides its datasource. Service behaviour is covered against
+ * H2 by the {@code test} profile alone.
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "postgres"})
+class PostgresRepositoryTests {
+
+    private static final EmbeddedPostgres postgres = start();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GuestRepository guestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", ex);
+        }
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void findsUserByProviderIdentity() {
+        User saved = userRepository.save(User.builder()
+                .email("pg-user@example.com")
+                .name("Postgres User")
+                .provider(User.AuthProvider.GITHUB)
+                .providerId("pg-1")
+                .build());
+
+        assertThat(userRepository.findByProviderAndProviderId(User.AuthProvider.GITHUB, "pg-1"))
+                .get()
+                .extracting(User::getId)
+                .isEqualTo(saved.getId());
+    }
+
+    @Test
+    void savesGuestsWithSequenceIdsAndPagesByKeyset() {
+        long userId = 7L;
+        guestRepository.saveAll(IntStream.range(0, 120)
+                .mapToObj(i -> guest(userId, "Guest " + i, null, 1))
+                .toList());
+
+        assertThat(guestRepository.countByUserId(userId)).isEqualTo(120);
+        assertThat(jdbcTemplate.queryForObject("SELECT last_value FROM guests_seq", Long.class)).isPositive();
+
+        List<GuestResponse> firstPage = guestRepository.findPageByUserIdAfterId(userId, 0L, PageRequest.of(0, 50));
+        List<GuestResponse> secondPage = guestRepository.findPageByUserIdAfterId(
+                userId, firstPage.get(49).getId(), PageRequest.of(0, 50));
+        assertThat(firstPage).hasSize(50);
+        assertThat(secondPage.get(0).getId()).isGreaterThan(firstPage.get(49).getId());
+        assertThat(guestRepository.findPageByUserIdAfterId(userId, 0L, PageRequest.of(0, 200))).hasSize(120);
+    }
+
+    @Test
+    void aggregatesDailyStats() {
+        long userId = 8L;
+        guestRepository.saveAll(List.of(
+                guest(userId, "With Email", "guest@example.com", 3),
+                guest(userId, "Without Email", null, 2)));
+
+        assertThat(guestRepository.findDailyStatsByUserId(userId))
+                .singleElement()
+                .satisfies(day -> {
+                    assertThat(day.guests()).isEqualTo(2);
+                    assertThat(day.headcount()).isEqualTo(5);
+                    assertThat(day.withEmail()).isEqualTo(1);
+                });
+    }
+
+    @Test
+    void fingerprintsGuestLists() {
+        long userId = 10L;
+        assertThat(guestRepository.findListVersionByUserId(userId))
+                .isEqualTo(new GuestListVersion(0L, 0L, 0L, null));
+
+        List<Guest> saved = guestRepository.saveAll(List.of(
+                guest(userId, "First Guest", null, 1),
+                guest(userId, "Second Guest", null, 1)));
+
+        GuestListVersion version = guestRepository.findListVersionByUserId(userId);
+        assertThat(version.guests()).isEqualTo(2);
+        assertThat(version.idSum()).isEqualTo(saved.get(0).getId() + saved.get(1).getId());
+        assertThat(version.versionSum()).isZero();
+        assertThat(version.lastUpdatedAt()).isNotNull();
+    }
+
+    @Test
+    void updatesAndDeletesOnlyAtExpectedVersion() {
+        long userId = 9L;
+        Guest saved = guestRepository.save(guest(userId, "Versioned Guest", "v@example.com", 3));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        Map<String, Object> clearPhone = new HashMap<>();
+        clearPhone.put("phone", null);
+        Integer staleUpdate = transaction.execute(status -> guestRepository.updateFields(
+                saved.getId(), userId, clearPhone, LocalDateTime.now(), Set.of(1L)));
+        Integer update = transaction.execute(status -> guestRepository.updateFields(
+                saved.getId(), userId, clearPhone, LocalDateTime.now(), Set.of(0L)));
+        assertThat(staleUpdate).isZero();
+        assertThat(update).isEqualTo(1);
+        assertThat(guestRepository.findVersionByIdAndUserId(saved.getId(), userId)).contains(1L);
+
+        Integer staleDelete = transaction.execute(status -> guestRepository.deleteByIdAndUserIdAndVersionIn(
+                saved.getId(), userId, Set.of(0L)));
+        Integer delete = transaction.execute(status -> guestRepository.deleteByIdAndUserIdAndVersionIn(
+                saved.getId(), userId, Set.of(1L)));
+        assertThat(staleDelete).isZero();
+        assertThat(delete).isEqualTo(1);
+        assertThat(guestRepository.existsByIdAndUserId(saved.getId(), userId)).isFalse();
+    }
+
+    @Test
+    void migrationsCreateGuestIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE tablename IN ('guests', 'guest_tombstones', 'users')",
+                String.class);
+
+        assertThat(indexes).contains(
+                "idx_guests_user_id_id", "idx_guests_user_id_created_at", "idx_guests_user_id_updated_at",
+                "idx_guest_tombstones_user_id_deleted_at", "uk_users_provider_provider_id");
+    }
+
+    private static Guest guest(long userId, String name, String email, int numOfGuests) {
+        return Guest.builder()
+                .userId(userId)
+                .name(name)
+                .email(email)
+                .numOfGuests(numOfGuests)
+                .build();
+    }
+}
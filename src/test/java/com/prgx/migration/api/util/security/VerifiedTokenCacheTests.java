@@ -0,0 +1,90 @@
+package com.prgx.migration.api.util.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Expiry, eviction, key generations and keying of {@link VerifiedTokenCache}
+ */
+class VerifiedTokenCacheTests {
+
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, new SimpleMeterRegistry());
+
+    @Test
+    void servesPrincipalsUntilTheirTokenExpires() {
+        JwtPrincipal principal = principal(42L, Instant.now().plusMillis(300));
+        cache.put("token", 0L, principal);
+
+        assertThat(cache.get("token", 0L)).isEqualTo(principal);
+        await().atMost(Duration.ofSeconds(2)).until(() -> cache.get("token", 0L) == null);
+        assertThat(Instant.now()).isAfterOrEqualTo(principal.expiresAt());
+    }
+
+    @Test
+    void neverServesTokensThatAreAlreadyExpiredOrHaveNoExpiry() {
+        cache.put("expired", 0L, principal(1L, Instant.now().minusSeconds(1)));
+        cache.put("no-exp", 0L, principal(2L, null));
+
+        assertThat(cache.get("expired", 0L)).isNull();
+        assertThat(cache.get("no-exp", 0L)).isNull();
+    }
+
+    @Test
+    void cachesNothingWhenDisabled() {
+        VerifiedTokenCache disabled = new VerifiedTokenCache(false, 100, new SimpleMeterRegistry());
+        disabled.put("token", 0L, principal(42L, Instant.now().plusSeconds(60)));
+
+        assertThat(disabled.get("token", 0L)).isNull();
+        disabled.invalidate("token");
+        disabled.invalidateAll();
+    }
+
+    @Test
+    void invalidatesSingleTokensAndEverything() {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        cache.put("a", 0L, principal(1L, expiresAt));
+        cache.put("b", 0L, principal(2L, expiresAt));
+        cache.put("c", 0L, principal(3L, expiresAt));
+
+        cache.invalidate("a");
+        assertThat(cache.get("a", 0L)).isNull();
+        assertThat(cache.get("b", 0L)).isNotNull();
+
+        cache.invalidateAll();
+        assertThat(cache.get("b", 0L)).isNull();
+        assertThat(cache.get("c", 0L)).isNull();
+    }
+
+    @Test
+    void servesEntriesOnlyForTheKeyGenerationTheyWereVerifiedUnder() {
+        JwtPrincipal principal = principal(42L, Instant.now().plusSeconds(60));
+        cache.put("token", 0L, principal);
+
+        assertThat(cache.get("token", 1L)).isNull();
+        assertThat(cache.get("token", 0L)).isEqualTo(principal);
+    }
+
+    @Test
+    void keysTokensBySha256Digest() throws Exception {
+        VerifiedTokenCache.TokenKey key = VerifiedTokenCache.TokenKey.of("header.payload.signature");
+        byte[] expected = MessageDigest.getInstance("SHA-256")
+                .digest("header.payload.signature".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(key.digest()).isEqualTo(expected);
+        assertThat(key).isEqualTo(VerifiedTokenCache.TokenKey.of("header.payload.signature"))
+                .hasSameHashCodeAs(VerifiedTokenCache.TokenKey.of("header.payload.signature"))
+                .isNotEqualTo(VerifiedTokenCache.TokenKey.of("header.payload.signaturf"));
+    }
+
+    private static JwtPrincipal principal(long userId, Instant expiresAt) {
+        return new JwtPrincipal(userId, "user" + userId + "@example.com", "GOOGLE", expiresAt);
+    }
+}
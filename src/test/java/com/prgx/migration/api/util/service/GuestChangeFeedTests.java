@@ -0,0 +1,236 @@
+package com.prgx.migration.api.util.service;
+
+import com.prgx.migration.api.util.dto.response.GuestResponse;
+import com.prgx.migration.api.util.event.GuestBatchChangedEvent;
+import com.prgx.migration.api.util.event.GuestChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Resuming, resetting, batching and back-pressure of {@link GuestChangeFeed}, observed through recording emitters
+ */
+class GuestChangeFeedTests {
+
+    private static final long USER_ID = 1L;
+    private static final int BUFFER_SIZE = 8;
+    private static final int QUEUE_CAPACITY = 4;
+    private static final int MAX_SUBSCRIBERS = 2;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private volatile CountDownLatch blockNextEmitter;
+
+    private final GuestChangeFeed feed = new GuestChangeFeed(BUFFER_SIZE, QUEUE_CAPACITY, MAX_SUBSCRIBERS,
+            Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofMinutes(10), meterRegistry) {
+        @Override
+        SseEmitter newEmitter() {
+            RecordingEmitter emitter = new RecordingEmitter(blockNextEmitter);
+            blockNextEmitter = null;
+            emitters.add(emitter);
+            return emitter;
+        }
+    };
+
+    @AfterEach
+    void closeFeed() {
+        emitters.forEach(emitter -> emitter.unblock.countDown());
+        feed.closeAll();
+    }
+
+    @Test
+    void startsFreshSubscribersFromNow() {
+        RecordingEmitter emitter = subscribe(null);
+        publish(3);
+
+        awaitEvents(emitter, 4);
+        assertThat(emitter.names()).containsExactly("ready", "created", "created", "created");
+        assertThat(emitter.sequences()).containsExactly(0L, 1L, 2L, 3L);
+    }
+
+    @Test
+    void resumesAfterLastEventId() {
+        RecordingEmitter first = subscribe(null);
+        publish(3);
+        awaitEvents(first, 4);
+
+        RecordingEmitter resumed = subscribe(first.events.get(1).id());
+
+        awaitEvents(resumed, 3);
+        assertThat(resumed.names()).containsExactly("ready", "created", "created");
+        assertThat(resumed.sequences()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void resetsWhenTheLastEventIdIsNoLongerBuffered() {
+        RecordingEmitter first = subscribe(null);
+        publish(1);
+        awaitEvents(first, 2);
+        String overwritten = first.events.get(1).id();
+        // The first subscriber may be dropped while these are published; only the buffer matters here
+        publish(BUFFER_SIZE + 1);
+
+        RecordingEmitter late = subscribe(overwritten);
+        RecordingEmitter foreign = subscribe("otherepoch-1");
+
+        awaitEvents(late, 1);
+        awaitEvents(foreign, 1);
+        assertThat(late.names()).containsExactly("reset");
+        assertThat(late.sequences()).containsExactly((long) BUFFER_SIZE + 2);
+        assertThat(foreign.names()).containsExactly("reset");
+    }
+
+    @Test
+    void dropsSubscribersThatCannotKeepUp() {
+        blockNextEmitter = new CountDownLatch(1);
+        RecordingEmitter slow = subscribe(null);
+        RecordingEmitter fast = subscribe(null);
+        await().atMost(Duration.ofSeconds(5)).until(() -> slow.sendAttempts > 0);
+        awaitEvents(fast, 1);
+
+        // The slow drainer is stuck sending "ready", so these fill its queue...
+        publish(QUEUE_CAPACITY);
+        awaitEvents(fast, QUEUE_CAPACITY + 1);
+        assertThat(slow.completed).isFalse();
+
+        // ...and the next one overflows it, while the fast subscriber keeps receiving
+        publish(1);
+        await().atMost(Duration.ofSeconds(5)).until(() -> slow.completed);
+        assertThat(meterRegistry.counter("guests.feed.dropped").count()).isEqualTo(1);
+        awaitEvents(fast, QUEUE_CAPACITY + 2);
+        assertThat(fast.completed).isFalse();
+    }
+
+    @Test
+    void publishesLargeBatchesAsOneResetWithoutDroppingSubscribers() {
+        RecordingEmitter subscriber = subscribe(null);
+        awaitEvents(subscriber, 1);
+
+        feed.onGuestBatchChanged(new GuestBatchChangedEvent(USER_ID, changes(QUEUE_CAPACITY + 1)));
+        feed.onGuestBatchChanged(new GuestBatchChangedEvent(USER_ID, changes(QUEUE_CAPACITY / 2)));
+
+        awaitEvents(subscriber, 2 + QUEUE_CAPACITY / 2);
+        assertThat(subscriber.names()).startsWith("ready", "reset").endsWith("created");
+        assertThat(subscriber.sequences()).startsWith(0L, 1L).endsWith(1L + QUEUE_CAPACITY / 2);
+        assertThat(subscriber.completed).isFalse();
+        assertThat(meterRegistry.counter("guests.feed.dropped").count()).isZero();
+
+        // The reset is buffered like any change, so a client resuming from before the batch reloads too
+        RecordingEmitter resumed = subscribe(subscriber.events.get(0).id());
+        awaitEvents(resumed, 2 + QUEUE_CAPACITY / 2);
+        assertThat(resumed.names()).startsWith("ready", "reset");
+    }
+
+    @Test
+    void closesTheOldestSubscriberAboveThePerUserCap() {
+        RecordingEmitter oldest = subscribe(null);
+        RecordingEmitter second = subscribe(null);
+        RecordingEmitter third = subscribe(null);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> oldest.completed);
+        assertThat(second.completed).isFalse();
+        assertThat(third.completed).isFalse();
+        assertThat(meterRegistry.get("guests.feed.subscribers").gauge().value()).isEqualTo(MAX_SUBSCRIBERS);
+    }
+
+    private RecordingEmitter subscribe(String lastEventId) {
+        feed.subscribe(USER_ID, lastEventId);
+        return emitters.get(emitters.size() - 1);
+    }
+
+    private void publish(int count) {
+        changes(count).forEach(feed::onGuestChanged);
+    }
+
+    private static List<GuestChangedEvent> changes(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> GuestChangedEvent.created(GuestResponse.builder()
+                        .id((long) i + 1)
+                        .userId(USER_ID)
+                        .name("Guest " + i)
+                        .version(0L)
+                        .build()))
+                .toList();
+    }
+
+    private static void awaitEvents(RecordingEmitter emitter, int count) {
+        await().atMost(Duration.ofSeconds(5)).until(() -> emitter.events.size() >= count);
+        assertThat(emitter.events).hasSize(count);
+    }
+
+    private record SentEvent(String id, String name) {
+    }
+
+    /**
+     * Keeps the id and name of every event sent; the first send blocks while {@code unblock} is closed
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<SentEvent> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch unblock;
+        private volatile boolean completed;
+        private volatile int sendAttempts;
+
+        RecordingEmitter(CountDownLatch unblock) {
+            this.unblock = unblock != null ? unblock : new CountDownLatch(0);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sendAttempts++;
+            try {
+                if (!unblock.await(10, TimeUnit.SECONDS)) {
+                    throw new IOException("Blocked subscriber timed out");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", ex);
+            }
+            String id = null;
+            String name = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String text) {
+                    for (String line : text.split("\n")) {
+                        if (line.startsWith("id:")) {
+                            id = line.substring(3);
+                        } else if (line.startsWith("event:")) {
+                            name = line.substring(6);
+                        }
+                    }
+                }
+            }
+            if (name != null) {
+                events.add(new SentEvent(id, name));
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+
+        List<String> names() {
+            return events.stream().map(SentEvent::name).toList();
+        }
+
+        List<Long> sequences() {
+            return events.stream().map(event -> Long.parseLong(event.id().substring(event.id().indexOf('-') + 1)))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.prgx.migration.api.util.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prgx.migration.api.util.dto.request.GuestRequest;
+import com.prgx.migration.api.util.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@link GuestCountCache} only follows committed writes
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class GuestCountCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GuestService guestService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long userId;
+    private String bearer;
+
+    @BeforeEach
+    void newUser() {
+        userId = TestUsers.newUserId();
+        bearer = TestUsers.bearer(jwtService, userId);
+    }
+
+    @Test
+    void committedCreatesAndDeletesChangeTheCount() throws Exception {
+        expectCount(0);
+
+        String created = mockMvc.perform(post("/api/guests")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Ada Lovelace\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+        expectCount(1);
+
+        mockMvc.perform(delete("/api/guests/{id}", id).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk());
+        expectCount(0);
+    }
+
+    @Test
+    void rolledBackCreatesLeaveTheCountAlone() throws Exception {
+        expectCount(0);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            guestService.createGuest(GuestRequest.builder().name("Ada Lovelace").build(), userId);
+            status.setRollbackOnly();
+        });
+
+        expectCount(0);
+    }
+
+    @Test
+    void readsDuringAnUncommittedCreateDoNotPinTheOldCount() throws Exception {
+        expectCount(0);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            guestService.createGuest(GuestRequest.builder().name("Ada Lovelace").build(), userId);
+            // Another request sees the committed state; had the create already invalidated the
+            // cache, this read would cache 0 again and hide the commit
+            long concurrent = CompletableFuture.supplyAsync(() -> guestService.getGuestCount(userId)).join();
+            assertThat(concurrent).isZero();
+        });
+
+        expectCount(1);
+    }
+
+    private void expectCount(long count) throws Exception {
+        mockMvc.perform(get("/api/guests/count").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(count));
+    }
+}
@@ -0,0 +1,202 @@
+package com.prgx.migration.api.util.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prgx.migration.api.util.dto.request.GuestBatchRequest;
+import com.prgx.migration.api.util.dto.request.GuestPatchRequest;
+import com.prgx.migration.api.util.dto.request.GuestRequest;
+import com.prgx.migration.api.util.dto.response.GuestBatchResponse;
+import com.prgx.migration.api.util.dto.response.GuestPageResponse;
+import com.prgx.migration.api.util.dto.response.GuestResponse;
+import com.prgx.migration.api.util.dto.response.GuestStatsResponse;
+import com.prgx.migration.api.util.dto.response.GuestSyncResponse;
+import com.prgx.migration.api.util.exception.PreconditionFailedException;
+import com.prgx.migration.api.util.exception.ResourceNotFoundException;
+import com.prgx.migration.api.util.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Batch writes, export, stats, incremental sync and PATCH of {@link GuestService}, against the in-memory H2 test profile
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class GuestServiceTests {
+
+    @Autowired
+    private GuestService guestService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long userId;
+
+    @BeforeEach
+    void newUser() {
+        userId = TestUsers.newUserId();
+    }
+
+    @Test
+    void batchCreatesGuestsAndPagesThem() {
+        GuestBatchResponse response = guestService.processBatch(creates(120), userId);
+
+        assertThat(response.getCreated()).isEqualTo(120);
+        assertThat(response.getResults()).allSatisfy(result -> assertThat(result.getStatus()).isEqualTo(201));
+        assertThat(guestService.getGuestCount(userId)).isEqualTo(120);
+
+        GuestPageResponse firstPage = guestService.getGuestPage(userId, null, 50);
+        GuestPageResponse secondPage = guestService.getGuestPage(userId, firstPage.getNextCursor(), 50);
+        assertThat(firstPage.isHasMore()).isTrue();
+        assertThat(secondPage.getItems().get(0).getId())
+                .isGreaterThan(firstPage.getItems().get(49).getId());
+    }
+
+    @Test
+    void reportsFailedBatchItemsAndAppliesTheRest() {
+        Long existing = ids(guestService.processBatch(creates(1), userId)).get(0);
+
+        GuestBatchResponse response = guestService.processBatch(List.of(
+                GuestBatchRequest.Operation.builder()
+                        .op(GuestBatchRequest.OperationType.UPDATE)
+                        .id(existing)
+                        .guest(GuestRequest.builder().name("Renamed Guest").build())
+                        .build(),
+                GuestBatchRequest.Operation.builder()
+                        .op(GuestBatchRequest.OperationType.CREATE)
+                        .guest(GuestRequest.builder().name("X").build())
+                        .build(),
+                GuestBatchRequest.Operation.builder()
+                        .op(GuestBatchRequest.OperationType.DELETE)
+                        .id(-1L)
+                        .build()), userId);
+
+        assertThat(response.getUpdated()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(GuestBatchResponse.ItemResult::getStatus)
+                .containsExactly(200, 400, 404);
+        assertThat(guestService.getGuestById(existing, userId).getName()).isEqualTo("Renamed Guest");
+    }
+
+    @Test
+    void aggregatesStats() {
+        guestService.processBatch(List.of(
+                GuestBatchRequest.Operation.builder()
+                        .op(GuestBatchRequest.OperationType.CREATE)
+                        .guest(GuestRequest.builder().name("With Email").email("guest@example.com").numOfGuests(3).build())
+                        .build(),
+                GuestBatchRequest.Operation.builder()
+                        .op(GuestBatchRequest.OperationType.CREATE)
+                        .guest(GuestRequest.builder().name("Without Email").numOfGuests(2).build())
+                        .build()), userId);
+
+        GuestStatsResponse stats = guestService.getGuestStats(userId, 7);
+
+        assertThat(stats.getGuests()).isEqualTo(2);
+        assertThat(stats.getHeadcount()).isEqualTo(5);
+        assertThat(stats.getWithEmail()).isEqualTo(1);
+        assertThat(stats.getWithoutEmail()).isEqualTo(1);
+        assertThat(stats.getCreatedPerDay()).singleElement().satisfies(day -> {
+            assertThat(day.getDate()).isEqualTo(LocalDate.now());
+            assertThat(day.getGuests()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void syncsChangesAndDeletionsSinceCursor() {
+        List<Long> ids = ids(guestService.processBatch(creates(3), userId));
+
+        GuestSyncResponse initial = guestService.getGuestChanges(userId, null, 2);
+        assertThat(initial.isHasMore()).isTrue();
+        GuestSyncResponse rest = guestService.getGuestChanges(userId, initial.getNextSince(), 2);
+        assertThat(rest.isHasMore()).isFalse();
+        assertThat(rest.getUpserts()).extracting(GuestResponse::getId).containsExactly(ids.get(2));
+
+        guestService.deleteGuest(ids.get(0), userId, null);
+        guestService.processBatch(List.of(GuestBatchRequest.Operation.builder()
+                .op(GuestBatchRequest.OperationType.DELETE)
+                .id(ids.get(1))
+                .build()), userId);
+
+        GuestSyncResponse delta = guestService.getGuestChanges(userId, rest.getNextSince(), null);
+        assertThat(delta.getDeletions()).extracting(GuestSyncResponse.Deletion::getId)
+                .containsExactly(ids.get(0), ids.get(1));
+        assertThat(delta.isFullResyncRequired()).isFalse();
+    }
+
+    @Test
+    void patchesOnlyGivenFieldsAndChecksVersion() {
+        GuestResponse created = guestService.createGuest(GuestRequest.builder()
+                .name("Versioned Guest").email("v@example.com").phone("555").numOfGuests(3).build(), userId);
+        assertThat(created.getVersion()).isZero();
+
+        GuestResponse patched = guestService.patchGuest(created.getId(),
+                GuestPatchRequest.builder().phone(Optional.empty()).build(), userId, Set.of(0L));
+        assertThat(patched.getVersion()).isEqualTo(1L);
+        assertThat(patched.getPhone()).isNull();
+        assertThat(patched.getEmail()).isEqualTo("v@example.com");
+        assertThat(patched.getNumOfGuests()).isEqualTo(3);
+
+        GuestPatchRequest rename = GuestPatchRequest.builder().name(Optional.of("Renamed Guest")).build();
+        assertThatThrownBy(() -> guestService.patchGuest(created.getId(), rename, userId, Set.of(0L)))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> guestService.patchGuest(-1L, rename, userId, Set.of(0L)))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> guestService.deleteGuest(created.getId(), userId, Set.of(0L)))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        guestService.deleteGuest(created.getId(), userId, Set.of(1L));
+        assertThatThrownBy(() -> guestService.getGuestById(created.getId(), userId))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void exportsEveryGuestInIdOrderAcrossChunks() throws Exception {
+        // Exactly two export chunks, so the last query comes back empty
+        List<Long> ids = ids(guestService.processBatch(creates(1000), userId));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(guestService.exportGuests(userId, out)).isEqualTo(1000);
+
+        List<Long> exported = out.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> readGuest(line).getId())
+                .toList();
+        assertThat(exported).isEqualTo(ids);
+    }
+
+    private GuestResponse readGuest(String line) {
+        try {
+            return objectMapper.readValue(line, GuestResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<GuestBatchRequest.Operation> creates(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> GuestBatchRequest.Operation.builder()
+                        .op(GuestBatchRequest.OperationType.CREATE)
+                        .guest(GuestRequest.builder().name("Guest " + i).numOfGuests(1).build())
+                        .build())
+                .toList();
+    }
+
+    private static List<Long> ids(GuestBatchResponse response) {
+        return response.getResults().stream().map(GuestBatchResponse.ItemResult::getId).toList();
+    }
+}
@@ -0,0 +1,133 @@
+package com.prgx.migration.api.util.service;
+
+import com.prgx.migration.api.util.dto.response.GuestResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tokenization and matching of {@link GuestTokenIndex}
+ */
+class GuestTokenIndexTests {
+
+    private final GuestTokenIndex index = new GuestTokenIndex();
+
+    @Test
+    void matchesWordsByPrefix() {
+        index.put(guest(1, "Ada Lovelace", null, null));
+        index.put(guest(2, "Adam Smith", null, null));
+
+        assertThat(search("a")).containsExactly(1L, 2L);
+        assertThat(search("ada")).containsExactly(1L, 2L);
+        assertThat(search("adam")).containsExactly(2L);
+        assertThat(search("LOVEL")).containsExactly(1L);
+        assertThat(search("ovelace")).isEmpty();
+        assertThat(search("lovelacex")).isEmpty();
+    }
+
+    @Test
+    void tokenizesEmailLocalPartAndDomain() {
+        index.put(guest(1, "Ada", "ada.lovelace@example.com", null));
+        index.put(guest(2, "Grace", "grace@navy.mil", null));
+
+        assertThat(GuestTokenIndex.tokenize(guest(1, "Ada", "ada.lovelace@example.com", null)))
+                .containsExactly("ada", "lovelace", "example.com", "example", "com");
+        assertThat(search("lovelace")).containsExactly(1L);
+        assertThat(search("example")).containsExactly(1L);
+        assertThat(search("example.com")).containsExactly(1L);
+        assertThat(search("navy mil")).containsExactly(2L);
+        assertThat(search("ada.lovelace@ex")).containsExactly(1L);
+        assertThat(search("ada.lovelace@navy")).isEmpty();
+        assertThat(search("@navy.mil")).containsExactly(2L);
+    }
+
+    @Test
+    void tokenizesPhoneDigitsFromEachGroup() {
+        index.put(guest(1, "Ada", null, "+1 (555) 123-4567"));
+        index.put(guest(2, "Grace", null, "555 987 6543"));
+
+        assertThat(GuestTokenIndex.tokenize(guest(1, null, null, "+1 (555) 123-4567")))
+                .containsExactlyInAnyOrder("15551234567", "5551234567", "1234567", "4567");
+        assertThat(GuestTokenIndex.parseQuery("(555) 123-45")).containsExactly("55512345");
+        assertThat(search("(555) 123-45")).containsExactly(1L);
+        assertThat(search("555")).containsExactly(1L, 2L);
+        assertThat(search("4567")).containsExactly(1L);
+        assertThat(search("234")).isEmpty();
+    }
+
+    @Test
+    void requiresEveryTerm() {
+        index.put(guest(1, "Ada Lovelace", "ada@example.com", null));
+        index.put(guest(2, "Ada King", "ada@example.org", null));
+        index.put(guest(3, "Charles Babbage", "charles@example.com", null));
+
+        assertThat(GuestTokenIndex.parseQuery("  Ada   ada KING ")).containsExactly("ada", "king");
+        assertThat(search("ada king")).containsExactly(2L);
+        assertThat(search("ada example.com")).containsExactly(1L);
+        assertThat(search("ada babbage")).isEmpty();
+    }
+
+    @Test
+    void pagesWithOffsetAndLimitInIdOrder() {
+        LongStream.rangeClosed(1, 10).forEach(id -> index.put(guest(id, "Guest " + id, null, null)));
+
+        assertThat(ids(index.search(GuestTokenIndex.parseQuery("guest"), 3, 4))).containsExactly(4L, 5L, 6L, 7L);
+        assertThat(ids(index.search(GuestTokenIndex.parseQuery("guest"), 8, 4))).containsExactly(9L, 10L);
+        assertThat(index.search(GuestTokenIndex.parseQuery("guest"), 0, 0)).isEmpty();
+    }
+
+    @Test
+    void mergesTermsMatchingManyTokens() {
+        // Each guest has its own token, so "word" unions thousands of postings (or falls back to "wor")
+        LongStream.rangeClosed(1, 5000).forEach(id -> index.put(guest(id, "word" + id, null, null)));
+        index.put(guest(5001, "wordless", null, null));
+
+        assertThat(index.search(GuestTokenIndex.parseQuery("word"), 0, 10_000)).hasSize(5001);
+        assertThat(search("word12")).hasSize(111).startsWith(12L, 120L).endsWith(1299L);
+        assertThat(search("word1 wordless")).isEmpty();
+    }
+
+    @Test
+    void keepsPostingsConsistentOnUpdateAndRemove() {
+        index.put(guest(1, "Ada Lovelace", "ada@example.com", "555-1234"));
+        index.put(guest(2, "Grace Hopper", null, null));
+
+        index.put(guest(1, "Ada King", null, null));
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(search("lovelace")).isEmpty();
+        assertThat(search("lov")).isEmpty();
+        assertThat(search("example")).isEmpty();
+        assertThat(search("555")).isEmpty();
+        assertThat(search("king")).containsExactly(1L);
+        assertThat(index.search(GuestTokenIndex.parseQuery("ada"), 0, 1).get(0).getName()).isEqualTo("Ada King");
+
+        index.remove(1L);
+        index.remove(99L);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(search("ada")).isEmpty();
+        assertThat(search("k")).isEmpty();
+        assertThat(search("grace")).containsExactly(2L);
+    }
+
+    private List<Long> search(String query) {
+        return ids(index.search(GuestTokenIndex.parseQuery(query), 0, 1000));
+    }
+
+    private static List<Long> ids(List<GuestResponse> guests) {
+        return guests.stream().map(GuestResponse::getId).toList();
+    }
+
+    private static GuestResponse guest(long id, String name, String email, String phone) {
+        return GuestResponse.builder()
+                .id(id)
+                .name(name)
+                .email(email)
+                .phone(phone)
+                .userId(1L)
+                .version(0L)
+                .build();
+    }
+}
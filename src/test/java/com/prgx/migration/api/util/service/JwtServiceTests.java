@@ -0,0 +1,121 @@
+package com.prgx.migration.api.util.service;
+
+import com.prgx.migration.api.util.model.User;
+import com.prgx.migration.api.util.security.RevokedTokens;
+import com.prgx.migration.api.util.security.TokenVerification;
+import com.prgx.migration.api.util.security.VerifiedTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Maps every way a token can be rejected to its {@link TokenVerification.Failure}, including revocation
+ * and secret rotation
+ */
+class JwtServiceTests {
+
+    private static final String SECRET = "test-secret-0123456789abcdef0123456789abcdef";
+
+    private final JwtService jwtService = newJwtService(SECRET, TimeUnit.HOURS.toMillis(1));
+
+    @Test
+    void verifiesOwnTokens() {
+        TokenVerification verification = jwtService.verifyToken(jwtService.generateToken(user(42L)));
+
+        assertThat(verification.isValid()).isTrue();
+        assertThat(verification.principal().userId()).isEqualTo(42L);
+        assertThat(verification.principal().email()).isEqualTo("user42@example.com");
+        assertThat(verification.principal().provider()).isEqualTo("GOOGLE");
+        assertThat(verification.principal().expiresAt()).isAfter(new Date().toInstant());
+    }
+
+    @Test
+    void rejectsMissingTokens() {
+        assertThat(jwtService.verifyToken(null).failure()).isEqualTo(TokenVerification.Failure.MISSING);
+        assertThat(jwtService.verifyToken(" ").failure()).isEqualTo(TokenVerification.Failure.MISSING);
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        String expired = newJwtService(SECRET, -TimeUnit.MINUTES.toMillis(1)).generateToken(user(42L));
+
+        assertThat(jwtService.verifyToken(expired).failure()).isEqualTo(TokenVerification.Failure.EXPIRED);
+    }
+
+    @Test
+    void rejectsTokensSignedWithAnotherKey() {
+        String foreign = newJwtService("another-secret-0123456789abcdef0123456789abcdef", TimeUnit.HOURS.toMillis(1))
+                .generateToken(user(42L));
+
+        assertThat(jwtService.verifyToken(foreign).failure()).isEqualTo(TokenVerification.Failure.INVALID_SIGNATURE);
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThat(jwtService.verifyToken("not.a.jwt").failure()).isEqualTo(TokenVerification.Failure.MALFORMED);
+    }
+
+    @Test
+    void rejectsNonNumericSubjects() {
+        String token = Jwts.builder()
+                .subject("not-a-user-id")
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertThat(jwtService.verifyToken(token).failure()).isEqualTo(TokenVerification.Failure.INVALID_CLAIMS);
+    }
+
+    @Test
+    void rejectsTokensOfTheOldSecretAfterRotation() {
+        JwtService rotating = newCachingJwtService();
+        String old = rotating.generateToken(user(42L));
+        // Cached before the rotation, so a stale cache entry would still accept it
+        assertThat(rotating.verifyToken(old).isValid()).isTrue();
+
+        rotating.rotateSecret("rotated-secret-0123456789abcdef0123456789abcdef");
+
+        assertThat(rotating.verifyToken(old).failure()).isEqualTo(TokenVerification.Failure.INVALID_SIGNATURE);
+        assertThat(rotating.verifyToken(rotating.generateToken(user(42L))).isValid()).isTrue();
+    }
+
+    @Test
+    void rejectsRevokedTokensEvenWhenCached() {
+        JwtService caching = newCachingJwtService();
+        String revoked = caching.generateToken(user(42L));
+        String other = caching.generateToken(user(43L));
+        assertThat(caching.verifyToken(revoked).isValid()).isTrue();
+
+        assertThat(caching.revokeToken(revoked)).isTrue();
+
+        assertThat(caching.verifyToken(revoked).failure()).isEqualTo(TokenVerification.Failure.REVOKED);
+        assertThat(caching.verifyToken(other).isValid()).isTrue();
+        assertThat(caching.revokeToken("not.a.jwt")).isFalse();
+    }
+
+    private static JwtService newJwtService(String secret, long expirationMs) {
+        return new JwtService(new VerifiedTokenCache(false, 0, new SimpleMeterRegistry()),
+                new RevokedTokens(100, new SimpleMeterRegistry()), secret, expirationMs);
+    }
+
+    private static JwtService newCachingJwtService() {
+        return new JwtService(new VerifiedTokenCache(true, 100, new SimpleMeterRegistry()),
+                new RevokedTokens(100, new SimpleMeterRegistry()), SECRET, TimeUnit.HOURS.toMillis(1));
+    }
+
+    private static User user(long id) {
+        return User.builder()
+                .id(id)
+                .email("user" + id + "@example.com")
+                .name("Test User " + id)
+                .provider(User.AuthProvider.GOOGLE)
+                .build();
+    }
+}
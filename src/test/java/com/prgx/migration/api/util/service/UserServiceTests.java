@@ -0,0 +1,163 @@
+package com.prgx.migration.api.util.service;
+
+import com.prgx.migration.api.util.model.User;
+import com.prgx.migration.api.util.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * OAuth logins through {@link UserService} and {@link OAuthIdentityCache}, against the in-memory H2 test profile.
+ * Deleting a user's row behind the cache's back shows whether a login was answered without the database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserServiceTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String providerId;
+
+    @BeforeEach
+    void newIdentity() {
+        providerId = UUID.randomUUID().toString();
+    }
+
+    @Test
+    void createsUserOnFirstLoginAndAnswersRepeatLoginsFromCache() {
+        User created = userService.processOAuthUser("google", google("Ada Lovelace", "https://example.com/ada.png"));
+        assertThat(userRepository.findById(created.getId())).isPresent();
+
+        userRepository.deleteById(created.getId());
+
+        User cached = userService.processOAuthUser("google", google("Ada Lovelace", "https://example.com/ada.png"));
+        assertThat(cached.getId()).isEqualTo(created.getId());
+        assertThat(cached.getAvatarUrl()).isEqualTo("https://example.com/ada.png");
+    }
+
+    @Test
+    void writesChangedProfilesAndRefreshesTheCache() {
+        User created = userService.processOAuthUser("google", google("Ada Lovelace", "https://example.com/ada.png"));
+
+        User renamed = userService.processOAuthUser("google", google("Ada King", "https://example.com/king.png"));
+
+        assertThat(renamed.getId()).isEqualTo(created.getId());
+        User stored = userRepository.findById(created.getId()).orElseThrow();
+        assertThat(stored.getName()).isEqualTo("Ada King");
+        assertThat(stored.getAvatarUrl()).isEqualTo("https://example.com/king.png");
+
+        userRepository.deleteById(created.getId());
+        User cached = userService.processOAuthUser("google", google("Ada King", "https://example.com/king.png"));
+        assertThat(cached.getName()).isEqualTo("Ada King");
+        assertThat(cached.getAvatarUrl()).isEqualTo("https://example.com/king.png");
+    }
+
+    @Test
+    void writesChangedEmails() {
+        User created = userService.processOAuthUser("google", google("Ada Lovelace", null));
+
+        userService.processOAuthUser("google", login(Map.of("sub", providerId,
+                "email", "changed-" + providerId + "@example.com", "name", "Ada Lovelace")));
+
+        assertThat(userRepository.findById(created.getId()).orElseThrow().getEmail())
+                .isEqualTo("changed-" + providerId + "@example.com");
+    }
+
+    @Test
+    void keepsTheAvatarWhenTheProviderSendsNone() {
+        User created = userService.processOAuthUser("google", google("Ada Lovelace", "https://example.com/ada.png"));
+        userRepository.deleteById(created.getId());
+
+        // Answered from the cache: a missing avatar is not a change
+        User withoutAvatar = userService.processOAuthUser("google", google("Ada Lovelace", null));
+
+        assertThat(withoutAvatar.getId()).isEqualTo(created.getId());
+        assertThat(withoutAvatar.getAvatarUrl()).isEqualTo("https://example.com/ada.png");
+    }
+
+    @Test
+    void allowsOneUserPerProviderIdentity() {
+        userRepository.saveAndFlush(user(providerId, "first-" + providerId + "@example.com"));
+
+        assertThatThrownBy(() -> userRepository.saveAndFlush(user(providerId, "second-" + providerId + "@example.com")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void letsConcurrentFirstLoginsShareTheWinnersUser() {
+        // The winner's insert stays uncommitted until the racing login waits for it on the unique index
+        CompletableFuture<User> racingLogin = transactionTemplate.execute(status -> {
+            userRepository.saveAndFlush(user(providerId, email()));
+            CompletableFuture<User> login = CompletableFuture.supplyAsync(
+                    () -> userService.processOAuthUser("google", google("Ada Lovelace", null)));
+            await().atMost(Duration.ofSeconds(5)).until(() -> jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE EXECUTING_STATEMENT LIKE 'insert into users%'",
+                    Long.class) > 0);
+            return login;
+        });
+
+        User user = racingLogin.orTimeout(10, TimeUnit.SECONDS).join();
+        assertThat(user.getId())
+                .isEqualTo(userRepository.findByProviderAndProviderId(User.AuthProvider.GOOGLE, providerId)
+                        .orElseThrow().getId());
+    }
+
+    private OAuth2User google(String name, String picture) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("sub", providerId);
+        attributes.put("email", email());
+        attributes.put("name", name);
+        if (picture != null) {
+            attributes.put("picture", picture);
+        }
+        return login(attributes);
+    }
+
+    private static OAuth2User login(Map<String, Object> attributes) {
+        return new DefaultOAuth2User(List.of(), attributes, "sub");
+    }
+
+    private String email() {
+        return providerId + "@example.com";
+    }
+
+    private static User user(String providerId, String email) {
+        return User.builder()
+                .provider(User.AuthProvider.GOOGLE)
+                .providerId(providerId)
+                .email(email)
+                .name("Ada Lovelace")
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.prgx.migration.api.util.support;
+
+import com.prgx.migration.api.util.UtilApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The full application on a random port with its default configuration and a throwaway H2 database,
+ * for benchmarks and load tests that run outside the Spring test framework.
+ * Secrets and OAuth clients get dummy values, and logging is reduced to warnings.
+ */
+public final class TemporaryApplication implements AutoCloseable {
+
+    private final Path dbDir;
+    private final ConfigurableApplicationContext context;
+
+    private TemporaryApplication(Path dbDir, ConfigurableApplicationContext context) {
+        this.dbDir = dbDir;
+        this.context = context;
+    }
+
+    /**
+     * @param extraArgs additional {@code --property=value} arguments, applied after the defaults
+     */
+    public static TemporaryApplication start(String... extraArgs) throws IOException {
+        Path dbDir = Files.createTempDirectory("guestdb-temporary");
+        List<String> args = new ArrayList<>(List.of(
+                "--SERVER_PORT=0",
+                "--DB_PATH=" + dbDir.resolve("guestdb"),
+                "--JWT_SECRET=temporary-secret-0123456789abcdef0123456789abcdef",
+                "--CORS_ALLOWED_ORIGINS=http://localhost",
+                "--OAUTH2_REDIRECT_URIS=http://localhost/oauth2/redirect",
+                "--GOOGLE_CLIENT_ID=temporary", "--GOOGLE_CLIENT_SECRET=temporary",
+                "--GITHUB_CLIENT_ID=temporary", "--GITHUB_CLIENT_SECRET=temporary",
+                "--logging.level.root=WARN",
+                "--logging.level.com.prgx.migration.api.util=WARN",
+                "--logging.level.org.springframework.security=WARN"));
+        args.addAll(List.of(extraArgs));
+        try {
+            return new TemporaryApplication(dbDir,
+                    new SpringApplicationBuilder(UtilApplication.class).run(args.toArray(String[]::new)));
+        } catch (RuntimeException ex) {
+            FileSystemUtils.deleteRecursively(dbDir);
+            throw ex;
+        }
+    }
+
+    public ConfigurableApplicationContext context() {
+        return context;
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        FileSystemUtils.deleteRecursively(dbDir.toFile());
+    }
+}
@@ -0,0 +1,34 @@
+package com.prgx.migration.api.util.support;
+
+import com.prgx.migration.api.util.model.User;
+import com.prgx.migration.api.util.service.JwtService;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * User ids and bearer tokens for tests sharing one application context and database.
+ * Every test takes a fresh user id, so guest data never leaks between tests.
+ */
+public final class TestUsers {
+
+    private static final AtomicLong USER_IDS = new AtomicLong(1_000);
+
+    private TestUsers() {
+    }
+
+    public static long newUserId() {
+        return USER_IDS.incrementAndGet();
+    }
+
+    /**
+     * {@code Authorization} header value for a user; the user needs no row, only a signed token
+     */
+    public static String bearer(JwtService jwtService, long userId) {
+        return "Bearer " + jwtService.generateToken(User.builder()
+                .id(userId)
+                .email("user" + userId + "@example.com")
+                .name("Test User " + userId)
+                .provider(User.AuthProvider.GOOGLE)
+                .build());
+    }
+}